@@ -0,0 +1,78 @@
+// benchmarks/src/main/java/com/carrental/CommandEncodingBenchmark.java
+package com.carrental;
+
+import com.carrental.model.Car;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding one command. gsonPretty is how CarService used to write every command (a shared
+ * Gson with pretty printing); gsonPlain drops the pretty printing; the codec benchmarks are
+ * what ExternalProcessBackend sends today.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class CommandEncodingBenchmark {
+    @Param({"ADD_CAR", "FILTER_CARS"})
+    public String action;
+
+    private final Gson pretty = new GsonBuilder().setPrettyPrinting().create();
+    private final Gson plain = new Gson();
+    private Map<String, Object> command;
+
+    @Setup
+    public void setUp() {
+        command = new HashMap<>();
+        command.put("id", "0f8fad5b-d9cb-469f-a165-70867728950e");
+        command.put("action", action);
+        if ("ADD_CAR".equals(action)) {
+            Car car = SyntheticCatalog.cars(1).get(0);
+            command.put("car", car);
+        } else {
+            command.put("typeFilter", "SUV");
+            command.put("minRating", 3.5);
+            command.put("maxPrice", 60000.0);
+            command.put("availableOnly", true);
+        }
+    }
+
+    @Benchmark
+    public byte[] gsonPretty() {
+        return pretty.toJson(command).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] gsonPlain() {
+        return plain.toJson(command).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] jsonWireCodec() {
+        return JsonWireCodec.INSTANCE.encodeCommand(command);
+    }
+
+    @Benchmark
+    public byte[] compactWireCodec() {
+        return CompactWireCodec.INSTANCE.encodeCommand(command);
+    }
+}
@@ -0,0 +1,61 @@
+// benchmarks/src/main/java/com/carrental/ImagePathRewriteBenchmark.java
+package com.carrental;
+
+import com.carrental.model.Car;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rewriting backend image paths ("src/Images/x.jpg") for classpath loading over a whole
+ * catalog: the original startsWith-plus-replace loop against CarTypeAdapter's prefix rewrite.
+ * Paths are read from the synthetic cars and never written back, so every invocation does
+ * the same work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ImagePathRewriteBenchmark {
+    @Param({"100", "10000", "100000"})
+    public int carCount;
+
+    private String[] paths;
+
+    @Setup
+    public void setUp() {
+        List<Car> cars = SyntheticCatalog.cars(carCount);
+        paths = new String[cars.size()];
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = cars.get(i).getImagePath();
+        }
+    }
+
+    @Benchmark
+    public void legacyReplace(Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(path != null && path.startsWith("src/Images/") ? path.replace("src/Images/", "/Images/") : path);
+        }
+    }
+
+    @Benchmark
+    public void prefixRewrite(Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(CarTypeAdapter.toClasspathImagePath(path));
+        }
+    }
+}
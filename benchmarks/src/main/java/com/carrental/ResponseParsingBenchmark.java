@@ -0,0 +1,103 @@
+// benchmarks/src/main/java/com/carrental/ResponseParsingBenchmark.java
+package com.carrental;
+
+import com.carrental.model.Car;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning a car-list response into the List<Car> the UI gets, at three catalog sizes.
+ * The legacy benchmarks replay the original parseResponseData (the envelope into a generic
+ * map, the data back out to JSON and in again as cars, then the image-path loop), once
+ * creating each TypeToken per call as it did and once with the types cached. The codec
+ * benchmarks are the single-pass decoders used today.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ResponseParsingBenchmark {
+    private static final Type MAP_TYPE = new TypeToken<Map<String, Object>>() {}.getType();
+    private static final Type CAR_LIST_TYPE = new TypeToken<List<Car>>() {}.getType();
+
+    @Param({"100", "10000", "100000"})
+    public int carCount;
+
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().create(); // As CarService had it
+    private String jsonText;
+    private byte[] jsonBytes;
+    private byte[] compactBytes;
+
+    @Setup
+    public void setUp() {
+        List<Car> cars = SyntheticCatalog.cars(carCount);
+        jsonBytes = JsonWireCodec.INSTANCE.encodeResponse(new CarResponse("bench", "success", null, cars, cars, 1));
+        jsonText = new String(jsonBytes, StandardCharsets.UTF_8);
+        Map<String, Object> envelope = new LinkedHashMap<>(); // Same shape the C++ compact encoder writes
+        envelope.put("id", "bench");
+        envelope.put("status", "success");
+        envelope.put("data", cars);
+        envelope.put("version", 1.0);
+        compactBytes = CompactWireCodec.INSTANCE.encodeCommand(envelope);
+    }
+
+    @Benchmark
+    public List<Car> legacyTypeTokenPerCall() {
+        Type typeOfList = new TypeToken<List<Car>>() {}.getType(); // Built by each caller
+        Map<String, Object> response = gson.fromJson(jsonText, new TypeToken<Map<String, Object>>() {}.getType());
+        List<Car> cars = gson.fromJson(gson.toJson(response.get("data")), typeOfList);
+        if (typeOfList.equals(new TypeToken<List<Car>>() {}.getType())) {
+            rewriteImagePaths(cars);
+        }
+        return cars;
+    }
+
+    @Benchmark
+    public List<Car> legacyCachedTypeToken() {
+        Map<String, Object> response = gson.fromJson(jsonText, MAP_TYPE);
+        List<Car> cars = gson.fromJson(gson.toJson(response.get("data")), CAR_LIST_TYPE);
+        rewriteImagePaths(cars);
+        return cars;
+    }
+
+    @Benchmark
+    public List<Car> jsonStreaming() throws IOException {
+        return JsonWireCodec.INSTANCE.decodeResponse(jsonBytes, true).cars;
+    }
+
+    @Benchmark
+    public List<Car> compact() throws IOException {
+        return CompactWireCodec.INSTANCE.decodeResponse(compactBytes, true).cars;
+    }
+
+    private static void rewriteImagePaths(List<Car> cars) {
+        for (Car car : cars) {
+            String currentPath = car.getImagePath();
+            if (currentPath != null && currentPath.startsWith("src/Images/")) {
+                car.setImagePath(currentPath.replace("src/Images/", "/Images/"));
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+// benchmarks/src/main/java/com/carrental/SyntheticCatalog.java
+package com.carrental;
+
+import com.carrental.model.Car;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic catalogs for the benchmarks: the same seed and size always give the same cars,
+ * shaped like the shipped data (names, image paths under src/Images/, a handful of types), so
+ * runs on different machines measure the same payloads.
+ */
+final class SyntheticCatalog {
+    static final long SEED = 20240601L;
+
+    private static final String[] MODELS = {"Haval H6", "Fortuner", "Toyota Corolla", "Toyota Yaris", "Honda Civic", "Suzuki Swift", "Kia Sportage"};
+    private static final String[] TYPES = {"SUV", "Sedan", "Hatchback", "Sports", "Van"};
+    private static final String[] IMAGES = {"hav.jpg", "fort.jpg", "tc.jpg", "yaris.jpg", "civic.jpg", "swift.jpg", "sportage.jpg"};
+
+    private SyntheticCatalog() {
+    }
+
+    static List<Car> cars(int count) {
+        Random random = new Random(SEED);
+        List<Car> cars = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int model = random.nextInt(MODELS.length);
+            String type = TYPES[random.nextInt(TYPES.length)];
+            cars.add(new Car(MODELS[model] + " #" + i, random.nextBoolean(), type, Math.round(random.nextDouble() * 50) / 10.0,
+                    "src/Images/" + IMAGES[model], (8 + random.nextInt(15)) + " km/l", (150 + random.nextInt(150)) + " km/h",
+                    String.valueOf(2 + random.nextInt(7)), random.nextBoolean() ? "Automatic" : "Manual", type,
+                    10000 + random.nextInt(90000), (2015 + random.nextInt(10)) + "-0" + (1 + random.nextInt(9)) + "-1" + random.nextInt(10)));
+        }
+        return cars;
+    }
+}
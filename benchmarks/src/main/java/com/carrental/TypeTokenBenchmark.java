@@ -0,0 +1,39 @@
+// benchmarks/src/main/java/com/carrental/TypeTokenBenchmark.java
+package com.carrental;
+
+import com.carrental.model.Car;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** The cost of building a TypeToken's Type on every call, as the original CarService did, against reusing one. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TypeTokenBenchmark {
+    private static final Type CAR_LIST_TYPE = new TypeToken<List<Car>>() {}.getType();
+
+    @Benchmark
+    public Type perCall() {
+        return new TypeToken<List<Car>>() {}.getType();
+    }
+
+    @Benchmark
+    public Type cached() {
+        return CAR_LIST_TYPE;
+    }
+}
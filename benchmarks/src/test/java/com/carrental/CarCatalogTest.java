@@ -0,0 +1,114 @@
+package com.carrental;
+
+import com.carrental.model.Car;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * CarCatalog's scans against a plain pass over the same cars, through puts, in-place updates,
+ * removes and the compaction they trigger.
+ */
+class CarCatalogTest {
+    private static final double NO_MIN = Double.NEGATIVE_INFINITY;
+    private static final double NO_MAX = Double.POSITIVE_INFINITY;
+    private static final String[] TYPES = {"SUV", "Sedan", "Hatchback", "Luxury SUV"};
+
+    @Test
+    void unfilteredScanSkipsTrailingDeletedRow() {
+        CarCatalog catalog = new CarCatalog();
+        catalog.put(car("A", "SUV", true, 10));
+        catalog.put(car("B", "Sedan", false, 20));
+        catalog.put(car("C", "SUV", true, 30));
+        catalog.remove("C");
+
+        assertArrayEquals(new int[]{0, 1}, catalog.scan(null, null, null, NO_MIN, NO_MAX, 0));
+        assertEquals(Arrays.asList("A"), names(catalog.cars(catalog.scan(null, "SUV", null, NO_MIN, NO_MAX, 0))));
+    }
+
+    @Test
+    void openBoundsKeepNaNRatingsAndPrices() {
+        CarCatalog catalog = new CarCatalog();
+        List<Car> cars = new ArrayList<>(Arrays.asList(car("Rated", "SUV", true, 10), car("Unrated", "SUV", true, Double.NaN)));
+        cars.get(1).setRating(Double.NaN);
+        for (int i = 0; i < 30; i++) {
+            cars.add(car("Sedan " + i, "Sedan", true, 500)); // Makes the SUV bitmap selective enough to start from
+        }
+        for (Car car : cars) {
+            catalog.put(car);
+        }
+
+        assertEquals(cars.size(), catalog.scan(null, null, null, NO_MIN, NO_MAX, 0).length); // A full pass
+        assertEquals(Arrays.asList("Rated", "Unrated"), names(catalog.cars(catalog.scan(null, "SUV", null, NO_MIN, NO_MAX, 0))));
+        assertEquals(Arrays.asList("Rated", "Unrated"), names(catalog.cars(catalog.scan("rated", null, null, NO_MIN, NO_MAX, 0))));
+        assertEquals(Arrays.asList("Rated"), names(catalog.cars(catalog.scan("rated", null, null, 0, NO_MAX, 0))));
+        assertEquals(Arrays.asList("Rated"), names(catalog.cars(catalog.scan("rated", null, null, NO_MIN, 100, 0))));
+        for (double minRating : new double[]{NO_MIN, 0}) {
+            assertEquals(names(CarQueryEngine.filter(cars, "", minRating, NO_MAX, false, 0)),
+                    names(CarQueryEngine.filter(catalog, "", minRating, NO_MAX, false, 0)), "minRating=" + minRating);
+        }
+    }
+
+    @Test
+    void scansMatchPlainFilterThroughChanges() {
+        Random random = new Random(22);
+        Map<String, Car> expected = new LinkedHashMap<>();
+        CarCatalog catalog = new CarCatalog();
+        for (int step = 0; step < 20000; step++) {
+            String name = "Car " + random.nextInt(400);
+            if (random.nextInt(3) == 0) {
+                expected.remove(name);
+                catalog.remove(name);
+            } else {
+                Car car = car(name, TYPES[random.nextInt(TYPES.length)], random.nextBoolean(), random.nextInt(1000));
+                expected.put(name, car); // An existing name keeps its place, as in the catalog
+                catalog.put(car);
+            }
+            if (step % 50 == 0) {
+                String text = random.nextBoolean() ? null : "car " + random.nextInt(40);
+                String type = random.nextBoolean() ? null : TYPES[random.nextInt(TYPES.length)];
+                Boolean available = random.nextInt(3) == 0 ? null : random.nextBoolean();
+                double maxPrice = random.nextBoolean() ? NO_MAX : random.nextInt(1000);
+                assertEquals(plainFilter(expected.values(), text, type, available, maxPrice),
+                        names(catalog.cars(catalog.scan(text, type, available, NO_MIN, maxPrice, 0))),
+                        "text=" + text + " type=" + type + " available=" + available + " maxPrice=" + maxPrice);
+            }
+        }
+    }
+
+    private static List<String> plainFilter(Iterable<Car> cars, String text, String type, Boolean available, double maxPrice) {
+        List<String> result = new ArrayList<>();
+        for (Car car : cars) {
+            boolean textMatches = text == null
+                    || car.getName().toLowerCase(Locale.ROOT).contains(text)
+                    || car.getType().toLowerCase(Locale.ROOT).contains(text)
+                    || car.getVehicleClass().toLowerCase(Locale.ROOT).contains(text);
+            if (textMatches && (type == null || type.equals(car.getType()))
+                    && (available == null || available == car.isAvailable()) && car.getPrice() <= maxPrice) {
+                result.add(car.getName());
+            }
+        }
+        return result;
+    }
+
+    private static List<String> names(List<Car> cars) {
+        List<String> names = new ArrayList<>();
+        for (Car car : cars) {
+            names.add(car.getName());
+        }
+        return names;
+    }
+
+    private static Car car(String name, String type, boolean available, double price) {
+        return new Car(name, available, type, 4.0, "src/Images/x.jpg", "12 km/l", "180 km/h", "5", "Automatic", type, price, "2023-01-01");
+    }
+}
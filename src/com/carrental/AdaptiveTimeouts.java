@@ -0,0 +1,84 @@
+// src/com/carrental/AdaptiveTimeouts.java
+package com.carrental;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default command timeouts learned per action from how long the backend actually takes to
+ * answer: four times the p99 of the recent round trips, kept between one and ten seconds. An
+ * action gets the old fixed ten seconds until it has been answered MIN_SAMPLES times.
+ * Commands that time out are recorded at the full time they waited, so a limit that turns out
+ * too tight grows back as soon as the backend slows down.
+ */
+class AdaptiveTimeouts {
+    static final long MIN_TIMEOUT_MILLIS = 1000;
+    static final long MAX_TIMEOUT_MILLIS = 10000;
+    private static final int P99_MULTIPLIER = 4;
+    private static final int MIN_SAMPLES = 20;
+    // Samples per window; the percentile comes from the newest window with enough of them.
+    private static final int WINDOW = 1000;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final Map<String, ActionWindow> actions = new ConcurrentHashMap<>();
+
+    /** The timeout to use for the next command of this action. */
+    long timeoutMillis(String action) {
+        ActionWindow window = actions.get(action);
+        return window == null ? MAX_TIMEOUT_MILLIS : window.timeoutMillis;
+    }
+
+    /** One round trip of this action, answered or timed out. */
+    void record(String action, long nanos) {
+        actions.computeIfAbsent(action, key -> new ActionWindow()).record(nanos);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("adaptive timeouts");
+        String separator = ": ";
+        for (Map.Entry<String, ActionWindow> entry : new TreeMap<>(actions).entrySet()) {
+            text.append(separator).append(entry.getKey()).append('=').append(entry.getValue().timeoutMillis).append(" ms");
+            separator = ", ";
+        }
+        return text.toString();
+    }
+
+    private static final class ActionWindow {
+        private volatile LatencyHistogram current = new LatencyHistogram();
+        private volatile LatencyHistogram previous;
+        volatile long timeoutMillis = MAX_TIMEOUT_MILLIS;
+
+        void record(long nanos) {
+            LatencyHistogram histogram = current;
+            histogram.record(nanos);
+            long count = histogram.count();
+            if (count >= WINDOW) {
+                synchronized (this) {
+                    if (current == histogram) {
+                        previous = histogram;
+                        current = new LatencyHistogram();
+                    }
+                }
+            }
+            // Reading a percentile walks every bucket, so it is not redone on every answer
+            if (count % RECOMPUTE_EVERY == 0 || count == MIN_SAMPLES) {
+                timeoutMillis = computeTimeoutMillis();
+            }
+        }
+
+        private long computeTimeoutMillis() {
+            LatencyHistogram histogram = current;
+            if (histogram.count() < MIN_SAMPLES) {
+                histogram = previous;
+            }
+            if (histogram == null) {
+                return MAX_TIMEOUT_MILLIS;
+            }
+            long limit = P99_MULTIPLIER * TimeUnit.NANOSECONDS.toMillis(histogram.percentileNanos(99));
+            return Math.max(MIN_TIMEOUT_MILLIS, Math.min(MAX_TIMEOUT_MILLIS, limit));
+        }
+    }
+}
@@ -15,6 +15,8 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
@@ -22,12 +24,15 @@ import java.net.URL;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import javax.imageio.ImageIO;
 
 public class AdminDashboard {
+    private static final Log log = Log.of(AdminDashboard.class);
 
     private JFrame frame;
     private JPanel contentPanel; // Panel to hold different views (User/Car Management)
@@ -65,11 +70,11 @@ public class AdminDashboard {
                         if (bgUrl != null) {
                             return ImageIO.read(bgUrl);
                         } else {
-                            System.err.println("AdminDashboard: Background image '" + imagePath + "' not found on classpath.");
+                            log.warn("Background image '" + imagePath + "' not found on classpath.");
                             return null;
                         }
                     } catch (IOException e) {
-                        System.err.println("AdminDashboard: Exception loading background image from URL: " + e.getMessage());
+                        log.error("Exception loading background image from URL: " + e.getMessage());
                         return null;
                     }
                 }
@@ -80,7 +85,7 @@ public class AdminDashboard {
                         backgroundImage = get();
                         repaint(); // Repaint after image is loaded
                     } catch (Exception e) {
-                        System.err.println("AdminDashboard: Error setting background image: " + e.getMessage());
+                        log.error("Error setting background image: " + e.getMessage());
                     }
                 }
             }.execute();
@@ -119,9 +124,9 @@ public class AdminDashboard {
                     ImageIO.read(Objects.requireNonNull(getClass().getResourceAsStream("/Images/car_icon.png"))));
             frame.setIconImage(icon.getImage());
         } catch (IOException e) {
-            System.err.println("Icon image not found (IOException): " + e.getMessage());
+            log.warn("Icon image not found (IOException): " + e.getMessage());
         } catch (NullPointerException e) {
-            System.err.println("Icon image resource not found (NullPointerException). Path: /Images/car_icon.png");
+            log.warn("Icon image resource not found (NullPointerException). Path: /Images/car_icon.png");
         }
 
 
@@ -557,26 +562,70 @@ public class AdminDashboard {
             add(buttonPanel, BorderLayout.SOUTH);
 
             populateCarTable(); // Call to populateCarTable()
+
+            // Rows follow catalog changes made here, on other screens or in another terminal
+            Runnable unsubscribe = CarService.onCarChanged(this::applyCarChanges);
+            frame.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosed(WindowEvent e) {
+                    unsubscribe.run();
+                }
+            });
         }
 
         private void populateCarTable() {
             carTableModel.setRowCount(0); // Clear existing data
             for (Car car : LoginPage.allCars) {
-                carTableModel.addRow(new Object[]{
-                        car.getName(),
-                        car.isAvailable() ? "Yes" : "No",
-                        car.getType(),
-                        car.getRating(),
-                        car.getImagePath(),
-                        car.getMileage(),
-                        car.getMaxSpeed(),
-                        car.getSeats(),
-                        car.getTransmission(),
-                        car.getVehicleClass(),
-                        String.format("%.2f", car.getPrice()),
-                        car.getReleaseDate()
-                });
+                carTableModel.addRow(rowFor(car));
+            }
+        }
+
+        private Object[] rowFor(Car car) {
+            return new Object[]{
+                    car.getName(),
+                    car.isAvailable() ? "Yes" : "No",
+                    car.getType(),
+                    car.getRating(),
+                    car.getImagePath(),
+                    car.getMileage(),
+                    car.getMaxSpeed(),
+                    car.getSeats(),
+                    car.getTransmission(),
+                    car.getVehicleClass(),
+                    String.format("%.2f", car.getPrice()),
+                    car.getReleaseDate()
+            };
+        }
+
+        /** Updates, adds or removes just the rows of the cars that changed; a reload refills the table. */
+        private void applyCarChanges(CarChangeEvent event) {
+            if (event.isReload()) {
+                populateCarTable();
+                return;
+            }
+            Map<String, Integer> rowsByName = new HashMap<>();
+            for (int row = 0; row < carTableModel.getRowCount(); row++) {
+                rowsByName.put((String) carTableModel.getValueAt(row, 0), row);
+            }
+            for (Car car : event.getChangedCars()) {
+                Integer row = rowsByName.get(car.getName());
+                if (row == null) {
+                    carTableModel.addRow(rowFor(car));
+                    continue;
+                }
+                Object[] values = rowFor(car);
+                for (int column = 1; column < values.length; column++) {
+                    if (!Objects.equals(carTableModel.getValueAt(row, column), values[column])) {
+                        carTableModel.setValueAt(values[column], row, column);
+                    }
+                }
             }
+            // Bottom up, so removing a row does not shift the ones still to go
+            event.getDeletedNames().stream()
+                    .map(rowsByName::get)
+                    .filter(Objects::nonNull)
+                    .sorted((a, b) -> b - a)
+                    .forEach(carTableModel::removeRow);
         }
 
         private void showCarDialog(Car carToEdit) {
@@ -688,7 +737,6 @@ public class AdminDashboard {
                             return;
                         }
                         if (CarService.addCar(newCar)) {
-                            LoginPage.allCars.add(newCar);
                             JOptionPane.showMessageDialog(frame, "Car added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                         } else {
                             JOptionPane.showMessageDialog(frame, "Failed to add car to service. Check console for details.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -712,12 +760,12 @@ public class AdminDashboard {
                             JOptionPane.showMessageDialog(frame, "Failed to update car. Check console for details.", "Error", JOptionPane.ERROR_MESSAGE);
                         }
                     }
-                    populateCarTable(); // Call to populateCarTable()
+                    // CarChangeFeed brings in the change and applyCarChanges updates the row
                 } catch (NumberFormatException ex) {
                     JOptionPane.showMessageDialog(frame, "Please enter valid numbers for Rating and Price.", "Input Error", JOptionPane.ERROR_MESSAGE);
                 } catch (Exception ex) {
                     JOptionPane.showMessageDialog(frame, "An unexpected error occurred: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                    ex.printStackTrace();
+                    log.error("Unexpected error saving car", ex);
                 }
             }
         }
@@ -740,12 +788,10 @@ public class AdminDashboard {
 
             if (confirm == JOptionPane.YES_OPTION) {
                 if (CarService.deleteCar(carNameToDelete)) {
-                    LoginPage.allCars.removeIf(car -> car.getName().equals(carNameToDelete));
                     JOptionPane.showMessageDialog(frame, "Car deleted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 } else {
                     JOptionPane.showMessageDialog(frame, "Failed to delete car (it might not have existed or service failed).", "Error", JOptionPane.ERROR_MESSAGE);
                 }
-                populateCarTable(); // Call to populateCarTable()
             }
         }
     } // End of CarManagementPanel
@@ -954,10 +1000,12 @@ public class AdminDashboard {
 
 
         } catch (Exception e) {
-            System.err.println("Nimbus Look and Feel not available. Using default. " + e.getMessage());
+            log.warn("Nimbus Look and Feel not available. Using default. " + e.getMessage());
         }
         // Ensure CarService and user data are initialized if AdminDashboard is run directly for testing
         CarService.initialize();
+        LoginPage.catalogSync.refresh(); // First refresh loads the whole catalog
+        CarService.useLocalCatalog(LoginPage.catalogSync);
         LoginPage.loadUsers();
 
         SwingUtilities.invokeLater(() -> new AdminDashboard(LoginPage.users, LoginPage.allCars));
@@ -0,0 +1,61 @@
+// src/com/carrental/AtomicFiles.java
+package com.carrental;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Whole-file writes that a reader in another process never sees half done: the content goes
+ * to a temporary file in the same directory, which is then moved over the target in one
+ * step. A reader opens either the old file or the new one. The C++ side does the same in
+ * AtomicFile.h.
+ */
+final class AtomicFiles {
+    // Windows refuses to replace a file another process has open; the reader lets go quickly.
+    private static final int MOVE_ATTEMPTS = 50;
+    private static final long MOVE_RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private AtomicFiles() {
+    }
+
+    static void write(Path target, byte[] content) throws IOException {
+        // Named per process and thread so concurrent writers never share a temporary file
+        Path temp = target.resolveSibling(target.getFileName() + "." + ProcessHandle.current().pid()
+                + "-" + Thread.currentThread().getId() + ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)) {
+                out.write(content);
+            }
+            replace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp); // Only still there if the move failed
+        }
+    }
+
+    private static void replace(Path temp, Path target) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                return;
+            } catch (AtomicMoveNotSupportedException e) {
+                // Same directory, so only unusual file systems get here; a plain replace is the best left
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                return;
+            } catch (AccessDeniedException e) {
+                if (attempt == MOVE_ATTEMPTS) {
+                    throw e;
+                }
+                LockSupport.parkNanos(MOVE_RETRY_NANOS);
+            }
+        }
+    }
+}
@@ -0,0 +1,277 @@
+// src/com/carrental/BackendSimulator.java
+package com.carrental;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A stand-in for CarManager.exe that runs anywhere Java does. It serves the full action set
+ * from a {@link CarCatalogEngine} and answers with the same id-matched envelope, so the IPC
+ * path can be exercised on Linux and in CI, optionally under injected latency and faults.
+ *
+ * <pre>
+ *   java -cp &lt;classpath&gt; com.carrental.BackendSimulator [--stdio] [--dir DIR]
+ *        [--latency MS] [--jitter MS] [--slow-rate P] [--slow-ms MS]
+ *        [--drop-rate P] [--torn-rate P] [--seed N]
+ * </pre>
+ *
+ * Without --stdio it polls command.json and answers in result.json, like the C++ file loop.
+ * With --stdio it speaks PipeTransport's framed protocol and delays each reply independently,
+ * so a slow reply does not hold up the ones behind it. The handshake only offers the JSON
+ * encoding. --shm is not supported: the simulator exits at once so CarService falls back to
+ * stdio. To put CarService in front of it, point -Dcarrental.backend.executable at a script
+ * that execs the command above with "$@".
+ *
+ * Each reply is independently dropped (never sent), torn (the first half of the JSON only) or
+ * slow (held for --slow-ms on top of the base latency), with the given probabilities.
+ */
+public class BackendSimulator {
+    private static final long COMMAND_POLL_MILLIS = 2;
+
+    private enum Fault { NONE, DROP, TORN, SLOW }
+
+    private final File directory;
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double slowRate;
+    private final long slowMillis;
+    private final double dropRate;
+    private final double tornRate;
+    private final Random random;
+
+    private final AtomicLong handled = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong torn = new AtomicLong();
+    private final AtomicLong slow = new AtomicLong();
+
+    private CarCatalogEngine engine;
+
+    private BackendSimulator(File directory, long latencyMillis, long jitterMillis, double slowRate, long slowMillis,
+                             double dropRate, double tornRate, long seed) {
+        this.directory = directory;
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.slowRate = slowRate;
+        this.slowMillis = slowMillis;
+        this.dropRate = dropRate;
+        this.tornRate = tornRate;
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean stdio = false;
+        File directory = new File(".");
+        long latency = 0, jitter = 0, slowMs = 1000, seed = System.nanoTime();
+        double slowRate = 0, dropRate = 0, tornRate = 0;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--stdio": stdio = true; break;
+                    case "--dir": directory = new File(args[++i]); break;
+                    case "--latency": latency = Long.parseLong(args[++i]); break;
+                    case "--jitter": jitter = Long.parseLong(args[++i]); break;
+                    case "--slow-rate": slowRate = Double.parseDouble(args[++i]); break;
+                    case "--slow-ms": slowMs = Long.parseLong(args[++i]); break;
+                    case "--drop-rate": dropRate = Double.parseDouble(args[++i]); break;
+                    case "--torn-rate": tornRate = Double.parseDouble(args[++i]); break;
+                    case "--seed": seed = Long.parseLong(args[++i]); break;
+                    case "--shm":
+                        System.err.println("Simulator: --shm is not supported.");
+                        System.exit(2);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (RuntimeException e) { // Bad number, missing value or unknown option
+            System.err.println("Simulator: " + e.getMessage());
+            System.err.println("Usage: BackendSimulator [--stdio] [--dir DIR] [--latency MS] [--jitter MS] [--slow-rate P] "
+                    + "[--slow-ms MS] [--drop-rate P] [--torn-rate P] [--seed N]");
+            System.exit(2);
+        }
+
+        if (stdio) {
+            System.setOut(System.err); // stdout carries frames now; route all log output to stderr.
+        }
+        BackendSimulator simulator = new BackendSimulator(directory, latency, jitter, slowRate, slowMs, dropRate, tornRate, seed);
+        Runtime.getRuntime().addShutdownHook(new Thread(simulator::printStats));
+        simulator.engine = new CarCatalogEngine(directory);
+        if (stdio) {
+            simulator.runStdioLoop();
+        } else {
+            simulator.runFileLoop();
+        }
+    }
+
+    /** Same exchange as runFileLoop in main.cpp: poll command.json, answer in result.json, clear command.json. */
+    private void runFileLoop() throws IOException, InterruptedException {
+        File commandFile = new File(directory, FileTransport.COMMAND_FILE);
+        File resultFile = new File(directory, FileTransport.RESULT_FILE);
+        // Unlike main.cpp, leave existing files alone: a JVM starts slowly enough that
+        // FileTransport may already have written the first command.
+        if (!commandFile.exists()) {
+            Files.writeString(commandFile.toPath(), "{}");
+        }
+        if (!resultFile.exists()) {
+            Files.writeString(resultFile.toPath(), "{}");
+        }
+        System.out.println("Simulator is running. Waiting for commands in " + commandFile + "...");
+
+        String lastProcessedCommandId = "";
+        long lastModified = -1, lastLength = -1;
+        while (true) {
+            long modified = commandFile.lastModified(), length = commandFile.length();
+            if (modified == lastModified && length == lastLength) {
+                Thread.sleep(COMMAND_POLL_MILLIS);
+                continue;
+            }
+            lastModified = modified;
+            lastLength = length;
+
+            byte[] body;
+            try {
+                body = Files.readAllBytes(commandFile.toPath());
+            } catch (NoSuchFileException e) {
+                continue;
+            }
+            String text = new String(body, StandardCharsets.UTF_8).trim();
+            if (text.isEmpty() || text.equals("{}")) {
+                continue;
+            }
+            Map<String, Object> command;
+            try {
+                command = JsonWireCodec.INSTANCE.decodeCommand(body);
+            } catch (IOException e) {
+                // FileTransport replaces command.json whole, so this is a bad command rather than a torn one.
+                System.err.println("Simulator: " + e.getMessage());
+                continue;
+            }
+            Object id = command.get("id");
+            if (id == null || id.toString().isEmpty() || id.toString().equals(lastProcessedCommandId)) {
+                continue;
+            }
+            lastProcessedCommandId = id.toString();
+
+            byte[] response = JsonWireCodec.INSTANCE.encodeResponse(engine.handle(command));
+            Fault fault = pickFault();
+            Thread.sleep(delayMillis(fault));
+            byte[] delivered = deliver(fault, response);
+            // Cleared before the answer goes out, as in main.cpp, so it cannot wipe Java's next command
+            AtomicFiles.write(commandFile.toPath(), "{}".getBytes(StandardCharsets.UTF_8));
+            if (delivered != null) {
+                AtomicFiles.write(resultFile.toPath(), delivered); // A TORN fault is still torn, just written whole
+            }
+        }
+    }
+
+    /**
+     * Same framing as runStdioLoop in main.cpp. Commands still run one at a time, in arrival
+     * order; only the replies are delayed, each on its own timer.
+     */
+    private void runStdioLoop() throws IOException, InterruptedException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        ScheduledExecutorService replies = Executors.newSingleThreadScheduledExecutor();
+        System.err.println("Simulator is running on the stdio channel.");
+        try {
+            while (true) {
+                int length = in.readInt();
+                if (length < 1 || length > PipeTransport.MAX_FRAME_LENGTH) {
+                    throw new IOException("Invalid stdio frame length " + length);
+                }
+                byte[] id = new byte[in.readUnsignedByte()];
+                in.readFully(id);
+                byte[] body = new byte[length - 1 - id.length];
+                in.readFully(body);
+
+                String commandId = new String(id, StandardCharsets.US_ASCII);
+                CarResponse result;
+                try {
+                    result = engine.handle(JsonWireCodec.INSTANCE.decodeCommand(body));
+                } catch (IOException e) {
+                    System.err.println("Simulator: Could not decode stdio frame: " + e.getMessage());
+                    result = new CarResponse(commandId, "error", "Invalid command encoding.", null, null);
+                }
+                CarResponse response = new CarResponse(commandId, result.status, result.message, result.data, result.cars, result.version);
+                Fault fault = pickFault();
+                byte[] delivered = deliver(fault, JsonWireCodec.INSTANCE.encodeResponse(response));
+                if (delivered != null) {
+                    replies.schedule(() -> writeFrame(out, id, delivered), delayMillis(fault), TimeUnit.MILLISECONDS);
+                }
+            }
+        } catch (EOFException e) {
+            System.err.println("Simulator: stdin closed, shutting down.");
+        } finally {
+            replies.shutdown();
+            replies.awaitTermination(slowMillis + latencyMillis + jitterMillis + 1000, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void writeFrame(DataOutputStream out, byte[] id, byte[] body) {
+        try {
+            out.writeInt(1 + id.length + body.length);
+            out.writeByte(id.length);
+            out.write(id);
+            out.write(body);
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Simulator: Could not write reply: " + e.getMessage());
+        }
+    }
+
+    private Fault pickFault() {
+        handled.incrementAndGet();
+        double roll = random.nextDouble();
+        if (roll < dropRate) {
+            dropped.incrementAndGet();
+            return Fault.DROP;
+        }
+        roll -= dropRate;
+        if (roll < tornRate) {
+            torn.incrementAndGet();
+            return Fault.TORN;
+        }
+        roll -= tornRate;
+        if (roll < slowRate) {
+            slow.incrementAndGet();
+            return Fault.SLOW;
+        }
+        return Fault.NONE;
+    }
+
+    private long delayMillis(Fault fault) {
+        long delay = latencyMillis + (jitterMillis > 0 ? (long) (random.nextDouble() * jitterMillis) : 0);
+        return fault == Fault.SLOW ? delay + slowMillis : delay;
+    }
+
+    /** The bytes to send for a reply, or null if it is dropped. */
+    private static byte[] deliver(Fault fault, byte[] response) {
+        switch (fault) {
+            case DROP: return null;
+            case TORN: return Arrays.copyOf(response, response.length / 2);
+            default: return response;
+        }
+    }
+
+    private void printStats() {
+        System.err.println("Simulator: " + handled.get() + " commands, " + dropped.get() + " dropped, "
+                + torn.get() + " torn, " + slow.get() + " slow.");
+    }
+}
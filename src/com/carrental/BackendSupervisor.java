@@ -0,0 +1,275 @@
+// src/com/carrental/BackendSupervisor.java
+package com.carrental;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongConsumer;
+
+/**
+ * Keeps an external backend process healthy. Every HEARTBEAT_INTERVAL_MILLIS it sends the
+ * active process a PING; if the process has exited or misses MISSED_HEARTBEATS_BEFORE_RESTART
+ * pings in a row it is replaced, by the warm standby if one is running (after a RELOAD_CARS so
+ * it serves what the old process saved) or else by a fresh process, retried with exponential
+ * backoff until one starts. While there is no healthy process the circuit breaker is open and
+ * commands fail at once instead of each waiting out its timeout. Catalog change events are
+ * passed on from the active process only; a replacement counts as a change of unknown version.
+ *
+ * All supervision runs on one scheduler thread; only {@link #execute} is called from others.
+ */
+class BackendSupervisor implements CarBackend {
+    private static final Log log = Log.of(BackendSupervisor.class);
+    /** Starts one backend process, or throws if it cannot be started. */
+    interface Starter {
+        ExternalProcessBackend start() throws IOException;
+    }
+
+    private static final long HEARTBEAT_INTERVAL_MILLIS = 2000;
+    private static final long HEARTBEAT_TIMEOUT_MILLIS = 1000;
+    private static final int MISSED_HEARTBEATS_BEFORE_RESTART = 2;
+    private static final long MIN_RESTART_DELAY_MILLIS = 500;
+    private static final long MAX_RESTART_DELAY_MILLIS = 30000;
+    private static final int BREAKER_FAILURE_THRESHOLD = 5;
+    private static final long BREAKER_OPEN_MILLIS = 5000;
+
+    private final Starter primaryStarter;
+    private final Starter standbyStarter; // null when no warm standby is wanted
+    private final CircuitBreaker breaker = new CircuitBreaker(BREAKER_FAILURE_THRESHOLD, BREAKER_OPEN_MILLIS);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "car-backend-supervisor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile ExternalProcessBackend active;
+    private volatile boolean closed;
+    private volatile LongConsumer catalogListener;
+    private ExternalProcessBackend standby; // Scheduler thread only from here on
+    private int missedHeartbeats;
+    private boolean restartPending;
+    private long restartDelayMillis = MIN_RESTART_DELAY_MILLIS;
+
+    BackendSupervisor(Starter primaryStarter, Starter standbyStarter) {
+        this.primaryStarter = primaryStarter;
+        this.standbyStarter = standbyStarter;
+    }
+
+    /**
+     * Starts the first process on the calling thread and begins supervising. Returns false if
+     * that first start failed; restarts are then already scheduled in the background.
+     */
+    boolean start() {
+        boolean started;
+        try {
+            active = watch(primaryStarter.start());
+            started = true;
+        } catch (IOException e) {
+            log.error("Failed to start C++ Car Manager process: " + e.getMessage());
+            breaker.trip();
+            started = false;
+        }
+        scheduler.scheduleWithFixedDelay(this::heartbeat, HEARTBEAT_INTERVAL_MILLIS, HEARTBEAT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        scheduler.execute(started ? this::ensureStandby : this::scheduleRestart);
+        return started;
+    }
+
+    @Override
+    public CompletableFuture<CarResponse> execute(Map<String, Object> command, long timeoutMillis) {
+        ExternalProcessBackend current = active;
+        if (closed) {
+            return CompletableFuture.failedFuture(new IOException("Car backend is shut down."));
+        }
+        if (current == null || !breaker.allowRequest()) {
+            return CompletableFuture.failedFuture(new IOException("Car backend unavailable (circuit " + breaker.state() + "); failing fast."));
+        }
+        return current.execute(command, timeoutMillis).whenComplete((response, error) -> {
+            if (error == null && response != null) {
+                breaker.recordSuccess(); // Any answer counts, even an error status
+                return;
+            }
+            if (error == null && timeoutMillis < AdaptiveTimeouts.MIN_TIMEOUT_MILLIS) {
+                breaker.recordInconclusive(); // The caller chose a deadline tighter than any default
+                return;
+            }
+            breaker.recordFailure();
+            if (!current.isAlive()) { // Don't wait for the next heartbeat to replace a dead process
+                scheduleOnSupervisor(() -> {
+                    if (active == current) {
+                        replaceActive("exited");
+                    }
+                });
+            }
+        });
+    }
+
+    @Override
+    public void onCatalogChanged(LongConsumer listener) {
+        catalogListener = listener;
+    }
+
+    private ExternalProcessBackend watch(ExternalProcessBackend backend) {
+        backend.onCatalogChanged(version -> {
+            LongConsumer listener = catalogListener;
+            if (listener != null && backend == active) { // A standby's view is not the one being served
+                listener.accept(version);
+            }
+        });
+        return backend;
+    }
+
+    @Override
+    public String name() {
+        ExternalProcessBackend current = active;
+        return current == null ? "supervised, restarting" : "supervised " + current.name();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(HEARTBEAT_TIMEOUT_MILLIS * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (active != null) {
+            active.close();
+            active = null;
+        }
+        if (standby != null) {
+            standby.close();
+            standby = null;
+        }
+    }
+
+    private void heartbeat() {
+        ExternalProcessBackend current = active;
+        if (closed || restartPending || current == null) {
+            return;
+        }
+        if (!current.isAlive()) {
+            replaceActive("exited");
+            return;
+        }
+        if (ping(current)) {
+            missedHeartbeats = 0;
+        } else if (++missedHeartbeats >= MISSED_HEARTBEATS_BEFORE_RESTART) {
+            replaceActive("missed " + missedHeartbeats + " heartbeats");
+            return;
+        }
+        ensureStandby();
+    }
+
+    private void replaceActive(String reason) {
+        log.warn("C++ Car Manager process " + reason + "; replacing it.");
+        breaker.trip();
+        ExternalProcessBackend failed = active;
+        active = null;
+        missedHeartbeats = 0;
+        if (failed != null) {
+            failed.kill(); // No grace period for a hung process; fails whatever was waiting on it
+        }
+
+        ExternalProcessBackend candidate = standby;
+        standby = null;
+        if (candidate != null) {
+            if (candidate.isAlive() && send(candidate, "RELOAD_CARS")) {
+                promote(candidate, "Warm standby took over");
+                return;
+            }
+            candidate.kill();
+        }
+        restart();
+    }
+
+    private void restart() {
+        restartPending = false;
+        if (closed) {
+            return;
+        }
+        try {
+            promote(primaryStarter.start(), "C++ Car Manager restarted");
+        } catch (IOException e) {
+            log.error("C++ Car Manager restart failed: " + e.getMessage());
+            scheduleRestart();
+        }
+    }
+
+    private void promote(ExternalProcessBackend backend, String note) {
+        active = watch(backend);
+        restartDelayMillis = MIN_RESTART_DELAY_MILLIS;
+        breaker.recordSuccess();
+        log.info(note + " (" + backend.name() + ").");
+        LongConsumer listener = catalogListener;
+        if (listener != null) {
+            listener.accept(CarResponse.NO_VERSION); // Whatever the old process had, resync with this one
+        }
+        ensureStandby();
+    }
+
+    private void scheduleRestart() {
+        restartPending = true;
+        log.warn("Retrying C++ Car Manager start in " + restartDelayMillis + " ms.");
+        scheduleOnSupervisor(this::restart, restartDelayMillis);
+        restartDelayMillis = Math.min(restartDelayMillis * 2, MAX_RESTART_DELAY_MILLIS);
+    }
+
+    /** Keeps one standby process running if one is wanted; a failed start is retried next heartbeat. */
+    private void ensureStandby() {
+        if (standbyStarter == null || closed) {
+            return;
+        }
+        if (standby != null && !standby.isAlive()) {
+            standby.close();
+            standby = null;
+        }
+        if (standby == null) {
+            try {
+                standby = standbyStarter.start();
+            } catch (IOException e) {
+                log.warn("Could not start standby C++ Car Manager process: " + e.getMessage());
+            }
+        }
+    }
+
+    private boolean ping(ExternalProcessBackend backend) {
+        return send(backend, "PING");
+    }
+
+    private static boolean send(ExternalProcessBackend backend, String action) {
+        Map<String, Object> command = new HashMap<>();
+        command.put("id", UUID.randomUUID().toString());
+        command.put("action", action);
+        try {
+            CarResponse response = backend.execute(command, HEARTBEAT_TIMEOUT_MILLIS).get(HEARTBEAT_TIMEOUT_MILLIS * 2, TimeUnit.MILLISECONDS);
+            return response != null && response.isSuccess();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    private void scheduleOnSupervisor(Runnable task) {
+        scheduleOnSupervisor(task, 0);
+    }
+
+    private void scheduleOnSupervisor(Runnable task, long delayMillis) {
+        if (!closed) {
+            try {
+                scheduler.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ignored) {
+                // Shut down between the check and the schedule.
+            }
+        }
+    }
+}
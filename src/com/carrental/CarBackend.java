@@ -0,0 +1,38 @@
+// src/com/carrental/CarBackend.java
+package com.carrental;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
+
+/**
+ * Whatever serves CarService's commands: the C++ Car Manager in a child process
+ * ({@link ExternalProcessBackend}) or the catalog engine inside this JVM
+ * ({@link InProcessCarBackend}). Both take the same command maps ("action" plus arguments)
+ * and answer with the same response envelope, so the public CarService API does not change
+ * with the backend.
+ */
+interface CarBackend {
+
+    /**
+     * Executes a command that already carries its "id".
+     *
+     * @return a future completed with the response, with null if the backend did not answer
+     *         in time, or exceptionally with an IOException if the backend failed
+     */
+    CompletableFuture<CarResponse> execute(Map<String, Object> command, long timeoutMillis);
+
+    /**
+     * Called with the new catalog version whenever the backend's catalog changes, whoever
+     * changed it, or with {@link CarResponse#NO_VERSION} when the version cannot be told (a
+     * replaced process). Backends that cannot notice changes on their own never call it.
+     */
+    default void onCatalogChanged(LongConsumer listener) {
+    }
+
+    /** Short description used in log lines ("stdio channel, compact encoding", "in-process", ...). */
+    String name();
+
+    /** Stops the backend and fails anything still pending. */
+    void close();
+}
@@ -0,0 +1,356 @@
+// src/com/carrental/CarCatalog.java
+package com.carrental;
+
+import com.carrental.model.Car;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The catalog laid out column by column for scans. Each field a filter tests (price, rating,
+ * seat count) is a primitive array indexed by row, availability is a BitSet, and the type and
+ * vehicle class are dictionary-encoded as an int per row. A scan walks these arrays rather than a Car object and
+ * its fields per row, and returns row ids. Only the rows a caller keeps become Car objects
+ * again, and those are the very objects the rows were built from, so in-place updates stay
+ * visible. Row order is catalog order.
+ *
+ * A CarIndex is kept alongside the columns. When a query's type, availability, price or rating
+ * condition narrows the catalog enough, scan starts from the index's rows for the narrowest of
+ * them and checks only those against the columns, instead of walking every row. Search text
+ * goes through a CarSearchIndex, built the first time text is looked up, which also answers
+ * the search field's suggestions.
+ *
+ * Not thread-safe: CatalogSync and CarCatalogEngine use it under their own locks.
+ */
+final class CarCatalog {
+    private static final int ANY_TYPE = -1;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int INDEX_SELECTIVITY = 8; // Start from an index that keeps at most 1 row in 8
+
+    private Car[] cars = new Car[INITIAL_CAPACITY];
+    private String[] lowerNames = new String[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private double[] ratings = new double[INITIAL_CAPACITY];
+    private int[] seatCounts = new int[INITIAL_CAPACITY];
+    private int[] typeCodes = new int[INITIAL_CAPACITY];
+    private int[] classCodes = new int[INITIAL_CAPACITY];
+    private final CarIndex index = new CarIndex();
+    private final BitSet live = new BitSet(); // Cleared for deleted rows until the next compaction
+
+    private final List<String> labelNames = new ArrayList<>(); // Type and vehicle class dictionary: code -> name
+    private final Map<String, Integer> labelCodesByName = new HashMap<>();
+    private CarSearchIndex search; // Null until text is first looked up
+    private final Map<String, Integer> rowsByName = new HashMap<>();
+    private int rows; // Rows in use, deleted ones included
+    private int deletedRows;
+
+    CarCatalog() {
+    }
+
+    CarCatalog(Collection<Car> initial) {
+        for (Car car : initial) {
+            put(car);
+        }
+    }
+
+    /** Live cars. */
+    int size() {
+        return rows - deletedRows;
+    }
+
+    void clear() {
+        Arrays.fill(cars, 0, rows, null);
+        index.clear();
+        if (search != null) {
+            search.clear();
+        }
+        live.clear();
+        rowsByName.clear();
+        labelNames.clear(); // Codes are handed out again as the rows come back
+        labelCodesByName.clear();
+        rows = 0;
+        deletedRows = 0;
+    }
+
+    /** Adds the car at the end, or re-reads it into its existing row (same name) after a change. */
+    void put(Car car) {
+        Integer existing = rowsByName.get(car.getName());
+        int row;
+        if (existing != null) {
+            row = existing;
+            unindex(row);
+        } else {
+            if (rows == cars.length) {
+                grow();
+            }
+            row = rows++;
+            rowsByName.put(car.getName(), row);
+            live.set(row);
+        }
+        cars[row] = car;
+        lowerNames[row] = lower(car.getName());
+        prices[row] = car.getPrice();
+        ratings[row] = car.getRating();
+        seatCounts[row] = car.getSeatCount();
+        typeCodes[row] = labelCode(car.getType());
+        classCodes[row] = labelCode(car.getVehicleClass());
+        index.add(row, typeCodes[row], car.isAvailable(), prices[row], ratings[row]);
+        if (search != null) {
+            indexText(row);
+        }
+    }
+
+    void remove(String name) {
+        Integer row = rowsByName.remove(name);
+        if (row == null) {
+            return;
+        }
+        unindex(row);
+        live.clear(row);
+        cars[row] = null;
+        lowerNames[row] = null;
+        if (++deletedRows > INITIAL_CAPACITY && deletedRows > rows / 2) {
+            compact();
+        }
+    }
+
+    /** Finishes index work a bulk fill deferred, so the first query after it does not pay. */
+    void settle() {
+        index.settle();
+        searchIndex().settle();
+    }
+
+    /** Up to limit names, types and vehicle classes for the search field, best match first. */
+    List<String> suggest(String text, int limit) {
+        return searchIndex().suggest(text, limit);
+    }
+
+    /**
+     * Ids of the rows that pass every given condition, in catalog order. text (matched, in
+     * lower case, against the name, type or vehicle class), type and availableWanted are
+     * ignored when null. Pass -Infinity/+Infinity and 0 for the numeric bounds that do not apply;
+     * an infinite bound is no condition at all, so a NaN rating or price passes it.
+     */
+    int[] scan(String text, String type, Boolean availableWanted, double minRating, double maxPrice, int minSeats) {
+        int typeCode = ANY_TYPE;
+        if (type != null) {
+            Integer code = labelCodesByName.get(type);
+            if (code == null) {
+                return new int[0]; // No car has this type
+            }
+            typeCode = code;
+        }
+
+        String lowerText = null;
+        boolean[] labelMatches = null; // Each type and class tested once, not once per row
+        int[] textRows = null;
+        if (text != null && !text.isEmpty()) {
+            lowerText = lower(text);
+            labelMatches = new boolean[labelNames.size()];
+            boolean anyLabel = false;
+            for (int code = 0; code < labelMatches.length; code++) {
+                labelMatches[code] = lower(labelNames.get(code)).contains(lowerText);
+                anyLabel |= labelMatches[code];
+            }
+            if (!anyLabel) { // Only names can match, and the search index knows which
+                textRows = searchIndex().rowsWithNameContaining(lowerText);
+            }
+        }
+
+        // Numeric and dictionary columns first
+        int[] matches;
+        int count = 0;
+        int[] candidates = indexedCandidates(typeCode, availableWanted, minRating, maxPrice, textRows);
+        if (candidates != null) {
+            matches = candidates; // Overwritten in place with the rows that pass
+            boolean anyPrice = maxPrice == Double.POSITIVE_INFINITY;
+            boolean anyRating = minRating == Double.NEGATIVE_INFINITY;
+            for (int row : candidates) {
+                boolean keep = (availableWanted == null || index.isAvailable(row) == availableWanted)
+                        & (anyPrice | prices[row] <= maxPrice)
+                        & (anyRating | ratings[row] >= minRating)
+                        & seatCounts[row] >= minSeats
+                        & (typeCode == ANY_TYPE | typeCodes[row] == typeCode);
+                matches[count] = row;
+                count += keep ? 1 : 0;
+            }
+        } else {
+            matches = new int[rows]; // scanAll writes a slot for every row it visits, deleted ones included
+            count = scanAll(matches, typeCode, availableWanted, minRating, maxPrice, minSeats);
+        }
+
+        if (lowerText != null) {
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                int row = matches[i];
+                if (labelMatches[typeCodes[row]] || labelMatches[classCodes[row]] || lowerNames[row].contains(lowerText)) {
+                    matches[kept++] = row;
+                }
+            }
+            count = kept;
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * The planner: the rows of whichever indexed condition keeps the fewest, in catalog order,
+     * already intersected with the type and availability bitmaps where those apply. textRows,
+     * if not null, are the rows the search text can match and compete like the others. Null
+     * when no condition is selective enough to beat a plain pass over the columns.
+     */
+    private int[] indexedCandidates(int typeCode, Boolean availableWanted, double minRating, double maxPrice, int[] textRows) {
+        int liveRows = size();
+        int typeRows = typeCode == ANY_TYPE ? liveRows : index.typeCount(typeCode);
+        int availabilityRows = availableWanted == null ? liveRows
+                : availableWanted ? index.availableCount() : liveRows - index.availableCount();
+        int priceRows = maxPrice == Double.POSITIVE_INFINITY ? liveRows : index.countPriceAtMost(maxPrice);
+        int ratingRows = minRating == Double.NEGATIVE_INFINITY ? liveRows : index.countRatingAtLeast(minRating);
+
+        int fewest = Math.min(Math.min(typeRows, availabilityRows), Math.min(priceRows, ratingRows));
+        if (textRows != null && textRows.length <= fewest) {
+            return textRows.length * INDEX_SELECTIVITY > liveRows ? null : textRows; // Already in catalog order
+        }
+        if ((long) fewest * INDEX_SELECTIVITY > liveRows) {
+            return null;
+        }
+        if (fewest == priceRows || fewest == ratingRows) {
+            int[] range = fewest == priceRows ? index.rowsPriceAtMost(maxPrice) : index.rowsRatingAtLeast(minRating);
+            Arrays.sort(range); // Back into catalog order
+            return range;
+        }
+        BitSet selected;
+        if (typeCode != ANY_TYPE) {
+            selected = index.typeRows(typeCode);
+            if (availableWanted != null) {
+                if (availableWanted) {
+                    selected.and(index.availableRows());
+                } else {
+                    selected.andNot(index.availableRows());
+                }
+            }
+        } else { // Unavailable cars are the live rows minus the available bitmap
+            selected = availableWanted ? (BitSet) index.availableRows().clone() : (BitSet) live.clone();
+            if (!availableWanted) {
+                selected.andNot(index.availableRows());
+            }
+        }
+        return selected.stream().toArray();
+    }
+
+    Car car(int row) {
+        return cars[row];
+    }
+
+    /** The Car objects of the given rows, in that order. */
+    List<Car> cars(int[] selectedRows) {
+        List<Car> result = new ArrayList<>(selectedRows.length);
+        for (int row : selectedRows) {
+            result.add(cars[row]);
+        }
+        return result;
+    }
+
+    /** Every live row against every condition, in one branch-free pass per 64-row word. */
+    private int scanAll(int[] matches, int typeCode, Boolean availableWanted, double minRating, double maxPrice, int minSeats) {
+        int count = 0;
+        long[] liveWords = live.toLongArray();
+        long[] availableWords = availableWanted == null ? null : index.availableRows().toLongArray();
+        boolean anyPrice = maxPrice == Double.POSITIVE_INFINITY; // An open bound passes NaN too, as CarQueryEngine does
+        boolean anyRating = minRating == Double.NEGATIVE_INFINITY;
+        for (int word = 0; word < liveWords.length; word++) {
+            long candidates = liveWords[word];
+            if (availableWanted != null) {
+                long availableBits = word < availableWords.length ? availableWords[word] : 0L;
+                candidates &= availableWanted ? availableBits : ~availableBits;
+            }
+            if (candidates == 0) {
+                continue;
+            }
+            int base = word << 6;
+            int end = Math.min(base + 64, rows);
+            for (int row = base; row < end; row++) {
+                boolean keep = ((candidates >>> (row - base)) & 1L) != 0
+                        & (anyPrice | prices[row] <= maxPrice)
+                        & (anyRating | ratings[row] >= minRating)
+                        & seatCounts[row] >= minSeats
+                        & (typeCode == ANY_TYPE | typeCodes[row] == typeCode);
+                matches[count] = row;
+                count += keep ? 1 : 0;
+            }
+        }
+        return count;
+    }
+
+    private void unindex(int row) {
+        index.remove(row, typeCodes[row], index.isAvailable(row), prices[row], ratings[row]);
+        if (search != null) {
+            search.removeName(lowerNames[row], row);
+            search.removeLabel(labelNames.get(typeCodes[row]));
+            if (classCodes[row] != typeCodes[row]) {
+                search.removeLabel(labelNames.get(classCodes[row]));
+            }
+        }
+    }
+
+    private void indexText(int row) {
+        search.addName(cars[row].getName(), lowerNames[row], row);
+        search.addLabel(labelNames.get(typeCodes[row]));
+        if (classCodes[row] != typeCodes[row]) {
+            search.addLabel(labelNames.get(classCodes[row]));
+        }
+    }
+
+    private CarSearchIndex searchIndex() {
+        if (search == null) {
+            search = new CarSearchIndex();
+            for (int row = live.nextSetBit(0); row >= 0 && row < rows; row = live.nextSetBit(row + 1)) {
+                indexText(row);
+            }
+        }
+        return search;
+    }
+
+    private int labelCode(String label) {
+        String name = label == null ? "" : label;
+        Integer code = labelCodesByName.get(name);
+        if (code == null) {
+            code = labelNames.size();
+            labelNames.add(name);
+            labelCodesByName.put(name, code);
+        }
+        return code;
+    }
+
+    private void grow() {
+        int capacity = cars.length * 2;
+        cars = Arrays.copyOf(cars, capacity);
+        lowerNames = Arrays.copyOf(lowerNames, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        ratings = Arrays.copyOf(ratings, capacity);
+        seatCounts = Arrays.copyOf(seatCounts, capacity);
+        typeCodes = Arrays.copyOf(typeCodes, capacity);
+        classCodes = Arrays.copyOf(classCodes, capacity);
+    }
+
+    /** Drops deleted rows, keeping the order of the rest. Row ids change. */
+    private void compact() {
+        List<Car> remaining = new ArrayList<>(size());
+        for (int row = live.nextSetBit(0); row >= 0 && row < rows; row = live.nextSetBit(row + 1)) {
+            remaining.add(cars[row]);
+        }
+        clear();
+        for (Car car : remaining) {
+            put(car);
+        }
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,369 @@
+// src/com/carrental/CarCatalogEngine.java
+package com.carrental;
+
+import com.carrental.model.Car;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The car catalog served straight from memory: a Java port of src/cpp/CarManager plus the
+ * action dispatch in main.cpp, with the same search, filter and sort rules (CarQueryEngine).
+ * The catalog is kept in insertion order and persisted to cars_data.json, a JSON array of
+ * cars of this backend's own, after every change. The C++ side writes the pipe-delimited
+ * cars_data.txt instead; that file is only read here, imported once when cars_data.json is
+ * missing, so switching backends keeps the inventory.
+ *
+ * Like CarManager it keeps a bounded log of which car each change touched, keyed by the
+ * version the change produced, to answer GET_CHANGES_SINCE.
+ */
+class CarCatalogEngine {
+    private static final Log log = Log.of(CarCatalogEngine.class);
+
+    static final String DATA_FILE = "cars_data.json";
+    static final String CPP_DATA_FILE = "cars_data.txt";
+
+    private static final Type CAR_LIST_TYPE = new TypeToken<List<Car>>() {}.getType();
+    private static final int CHANGE_LOG_CAPACITY = 10000;
+
+    private final File dataDirectory;
+    private final File dataFile;
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final Map<String, Car> cars = new LinkedHashMap<>(); // name -> car, in insertion order
+    private final CarCatalog columns = new CarCatalog(); // The same cars as columns, for FILTER_CARS scans
+    private boolean autoSave = true;
+    private long version = System.currentTimeMillis(); // Bumped by every change; starts from the clock, like CarManager's
+    private final Deque<Change> changeLog = new ArrayDeque<>();
+    private long historyStart = version; // Every change after this version is in changeLog
+
+    CarCatalogEngine(File dataDirectory) {
+        this.dataDirectory = dataDirectory;
+        this.dataFile = new File(dataDirectory, DATA_FILE);
+        load();
+    }
+
+    /** Executes one command map and returns the response envelope, echoing the command's id. */
+    synchronized CarResponse handle(Map<String, Object> command) {
+        CarResponse response = dispatch(command);
+        return new CarResponse(response.id, response.status, response.message, response.data, response.cars, version);
+    }
+
+    private CarResponse dispatch(Map<String, Object> command) {
+        String id = command.get("id") == null ? "" : command.get("id").toString();
+        String action = command.get("action") == null ? "" : command.get("action").toString();
+        try {
+            switch (action) {
+                case "HELLO":
+                    return success(id, null, Map.of("protocol", 1.0, "encodings", List.of("json")));
+                case "PING":
+                    return success(id, null, null);
+                case "CANCEL": // Commands run as they arrive here, so there is never a waiting one to drop
+                    return success(id, null, Map.of("cancelled", false));
+                case "RELOAD_CARS":
+                    cars.clear();
+                    columns.clear();
+                    load();
+                    version++;
+                    changeLog.clear(); // Whatever was on disk replaces the history as a whole
+                    historyStart = version;
+                    return success(id, null, null);
+                case "GET_ALL_CARS":
+                    return carList(id, new ArrayList<>(cars.values()));
+                case "ADD_CAR":
+                    return addCar(id, toCar(command.get("car")));
+                case "UPDATE_CAR":
+                    return updateCar(id, toCar(command.get("car")));
+                case "DELETE_CAR":
+                    return deleteCar(id, stringArg(command, "carName", ""));
+                case "BATCH":
+                    return batch(id, command.get("commands"));
+                case "GET_CHANGES_SINCE":
+                    return changesSince(id, (long) doubleArg(command, "since", -1));
+                case "SEARCH_CARS":
+                    return carList(id, CarQueryEngine.search(cars.values(), stringArg(command, "query", ""), stringArg(command, "searchField", "")));
+                case "FILTER_CARS":
+                    return carList(id, CarQueryEngine.filter(columns, stringArg(command, "typeFilter", ""), doubleArg(command, "minRating", 0.0),
+                            doubleArg(command, "maxPrice", 1000000.0), booleanArg(command, "availableOnly", false),
+                            (int) doubleArg(command, "minSeats", 0)));
+                case "SORT_CARS":
+                    return carList(id, CarQueryEngine.sort(cars.values(), stringArg(command, "sortBy", ""), booleanArg(command, "ascending", true)));
+                default:
+                    log.warn("Unknown command action: '" + action + "'");
+                    return error(id, "Unknown action or invalid command structure.");
+            }
+        } catch (IllegalArgumentException e) {
+            return error(id, "Error handling " + action + ": " + e.getMessage());
+        }
+    }
+
+    synchronized int size() {
+        return cars.size();
+    }
+
+    private CarResponse addCar(String id, Car car) {
+        if (cars.containsKey(car.getName())) {
+            return error(id, "Car with this name already exists.");
+        }
+        cars.put(car.getName(), car);
+        columns.put(car);
+        recordChange(car.getName());
+        saveIfAutoSaving();
+        return success(id, "Car added successfully.", null);
+    }
+
+    private CarResponse updateCar(String id, Car car) {
+        if (!cars.containsKey(car.getName())) {
+            return error(id, "Car not found for update.");
+        }
+        cars.put(car.getName(), car); // Replaces in place, keeping the car's position
+        columns.put(car);
+        recordChange(car.getName());
+        saveIfAutoSaving();
+        return success(id, "Car updated successfully.", null);
+    }
+
+    private CarResponse deleteCar(String id, String carName) {
+        if (carName.isEmpty()) {
+            return error(id, "Car name for deletion cannot be empty.");
+        }
+        if (cars.remove(carName) == null) {
+            return error(id, "Car not found for deletion.");
+        }
+        columns.remove(carName);
+        recordChange(carName);
+        saveIfAutoSaving();
+        return success(id, "Car deleted successfully.", null);
+    }
+
+    /** Same contract as the C++ BATCH action: one {status, message} per item, one save at the end. */
+    @SuppressWarnings("unchecked")
+    private CarResponse batch(String id, Object items) {
+        List<Object> results = new ArrayList<>();
+        boolean changed = false;
+        autoSave = false;
+        try {
+            for (Object item : items instanceof List ? (List<Object>) items : List.of()) {
+                Object itemAction = item instanceof Map ? ((Map<String, Object>) item).get("action") : null;
+                Map<String, Object> result = new LinkedHashMap<>();
+                if ("ADD_CAR".equals(itemAction) || "UPDATE_CAR".equals(itemAction) || "DELETE_CAR".equals(itemAction)) {
+                    CarResponse itemResponse = handle((Map<String, Object>) item);
+                    result.put("status", itemResponse.status);
+                    result.put("message", itemResponse.message == null ? "" : itemResponse.message);
+                    changed |= itemResponse.isSuccess();
+                } else {
+                    result.put("status", "error");
+                    result.put("message", "Unsupported batch action: " + (itemAction == null ? "" : itemAction));
+                }
+                results.add(result);
+            }
+        } finally {
+            autoSave = true;
+        }
+        if (changed) {
+            save();
+        }
+        return success(id, null, results);
+    }
+
+    private void recordChange(String carName) {
+        version++;
+        changeLog.addLast(new Change(version, carName));
+        if (changeLog.size() > CHANGE_LOG_CAPACITY) {
+            historyStart = changeLog.removeFirst().version;
+        }
+    }
+
+    /** Same answer as GET_CHANGES_SINCE in main.cpp: {sequence, reset, cars, deleted}. */
+    private CarResponse changesSince(String id, long since) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("sequence", version);
+        if (since < historyStart || since > version) {
+            // Older than the log, or from before a restart or reload: only the full catalog will do.
+            changes.put("reset", true);
+            changes.put("cars", carList(id, new ArrayList<>(cars.values())).cars);
+            changes.put("deleted", List.of());
+            return success(id, null, changes);
+        }
+        LinkedHashSet<String> changed = new LinkedHashSet<>();
+        for (Iterator<Change> it = changeLog.descendingIterator(); it.hasNext(); ) {
+            Change change = it.next();
+            if (change.version <= since) {
+                break;
+            }
+            changed.add(change.carName);
+        }
+        List<Car> upserted = new ArrayList<>();
+        for (Car car : cars.values()) { // Catalog order, so new cars are appended in the same order
+            if (changed.remove(car.getName())) {
+                upserted.add(car);
+            }
+        }
+        List<String> deleted = new ArrayList<>(changed); // Changed, but no longer in the catalog
+        changes.put("reset", false);
+        changes.put("cars", carList(id, upserted).cars);
+        changes.put("deleted", deleted);
+        return success(id, null, changes);
+    }
+
+    // --- Conversion between the wire's command maps and stored cars ---
+
+    /** Cars arrive as Car objects in-process and as maps from a decoded wire command. */
+    private static Car toCar(Object value) {
+        if (value instanceof Car) {
+            return copyOf((Car) value);
+        }
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            return new Car(string(map.get("name")), Boolean.TRUE.equals(map.get("available")), string(map.get("type")),
+                    number(map.get("rating")), string(map.get("imagePath")), string(map.get("mileage")),
+                    string(map.get("maxSpeed")), string(map.get("seats")), string(map.get("transmission")),
+                    string(map.get("vehicleClass")), number(map.get("price")), string(map.get("releaseDate")));
+        }
+        throw new IllegalArgumentException("missing \"car\" object");
+    }
+
+    /** Stored cars never leave the engine: callers get copies, with image paths ready for the classpath. */
+    private static Car copyOf(Car car) {
+        return new Car(string(car.getName()), car.isAvailable(), string(car.getType()), car.getRating(),
+                string(car.getImagePath()), string(car.getMileage()), string(car.getMaxSpeed()), string(car.getSeats()),
+                string(car.getTransmission()), string(car.getVehicleClass()), car.getPrice(), string(car.getReleaseDate()));
+    }
+
+    private static CarResponse carList(String id, List<Car> stored) {
+        List<Car> copies = new ArrayList<>(stored.size());
+        for (Car car : stored) {
+            Car copy = copyOf(car);
+            copy.setImagePath(CarTypeAdapter.toClasspathImagePath(copy.getImagePath()));
+            copies.add(copy);
+        }
+        return new CarResponse(id, "success", null, copies, copies);
+    }
+
+    private static CarResponse success(String id, String message, Object data) {
+        return new CarResponse(id, "success", message, data, null);
+    }
+
+    private static CarResponse error(String id, String message) {
+        return new CarResponse(id, "error", message, null, null);
+    }
+
+    private static String stringArg(Map<String, Object> command, String key, String fallback) {
+        Object value = command.get(key);
+        return value == null ? fallback : value.toString();
+    }
+
+    private static double doubleArg(Map<String, Object> command, String key, double fallback) {
+        Object value = command.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : fallback;
+    }
+
+    private static boolean booleanArg(Map<String, Object> command, String key, boolean fallback) {
+        Object value = command.get(key);
+        return value instanceof Boolean ? (Boolean) value : fallback;
+    }
+
+    private static String string(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0.0;
+    }
+
+    private static final class Change {
+        final long version; // The version this change produced
+        final String carName; // The car it touched; its current state is looked up on read
+
+        Change(long version, String carName) {
+            this.version = version;
+            this.carName = carName;
+        }
+    }
+
+    // --- Persistence ---
+
+    private void load() {
+        if (dataFile.isFile()) {
+            try (Reader reader = Files.newBufferedReader(dataFile.toPath(), StandardCharsets.UTF_8)) {
+                List<Car> loaded = gson.fromJson(reader, CAR_LIST_TYPE);
+                if (loaded != null) {
+                    for (Car car : loaded) {
+                        Car stored = copyOf(car);
+                        cars.put(stored.getName(), stored);
+                        columns.put(stored);
+                    }
+                }
+                log.info("Cars loaded from " + dataFile + ". Total: " + cars.size());
+                return;
+            } catch (IOException | JsonParseException e) {
+                log.error("Could not read " + dataFile + ": " + e.getMessage());
+            }
+        }
+        importCppData(new File(dataDirectory, CPP_DATA_FILE));
+    }
+
+    /** Reads the C++ backend's pipe-separated store, one car per line with 12 fields. */
+    private void importCppData(File cppFile) {
+        if (!cppFile.isFile()) {
+            log.warn("No car data found in " + cppFile.getParentFile() + "; starting empty.");
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(cppFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] f = line.split("\\|", -1);
+                if (f.length != 12) {
+                    log.warn("Malformed line in " + cppFile + ": " + line);
+                    continue;
+                }
+                Car car = new Car(f[0], "1".equals(f[1]), f[2], parseDouble(f[3]), f[4], f[5], f[6], f[7], f[8], f[9], parseDouble(f[10]), f[11]);
+                cars.put(car.getName(), car);
+                columns.put(car);
+            }
+            log.info("Imported " + cars.size() + " cars from " + cppFile);
+            save();
+        } catch (IOException e) {
+            log.error("Could not import " + cppFile + ": " + e.getMessage());
+        }
+    }
+
+    private static double parseDouble(String text) {
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
+    private void saveIfAutoSaving() {
+        if (autoSave) {
+            save();
+        }
+    }
+
+    /** Replaces the data file whole, so a crash mid-save leaves the previous catalog intact. */
+    private void save() {
+        try {
+            AtomicFiles.write(dataFile.toPath(), gson.toJson(new ArrayList<>(cars.values()), CAR_LIST_TYPE).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.error("Could not save cars to " + dataFile + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+// src/com/carrental/CarChangeEvent.java
+package com.carrental;
+
+import com.carrental.model.Car;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What changed in the car catalog since a {@link CarChangeListener} was last told. The changed
+ * cars are the synced catalog's own objects (those in {@link LoginPage#allCars}), already
+ * holding their new values; deleted cars are named. After a reload, {@link #isReload()} is
+ * true and the parts are not meaningful: redraw from the whole list instead.
+ */
+public final class CarChangeEvent {
+    private final boolean reload;
+    private final Map<String, Car> changed;
+    private final Set<String> deleted;
+
+    CarChangeEvent(boolean reload, Collection<Car> changedCars, Collection<String> deletedNames) {
+        this.reload = reload;
+        this.changed = new LinkedHashMap<>();
+        for (Car car : changedCars) {
+            changed.put(car.getName(), car);
+        }
+        this.deleted = new LinkedHashSet<>(deletedNames);
+    }
+
+    static CarChangeEvent reloaded() {
+        return new CarChangeEvent(true, Collections.emptyList(), Collections.emptyList());
+    }
+
+    /** True if the whole catalog was replaced rather than changed car by car. */
+    public boolean isReload() { return reload; }
+
+    /** Cars added or updated, each once, in the order they first changed. */
+    public Collection<Car> getChangedCars() { return Collections.unmodifiableCollection(changed.values()); }
+
+    /** Names of cars no longer in the catalog. */
+    public Set<String> getDeletedNames() { return Collections.unmodifiableSet(deleted); }
+
+    /** This event followed by a later one, as a single event: the later state of each car wins. */
+    CarChangeEvent merge(CarChangeEvent later) {
+        if (reload || later.reload) {
+            return reloaded();
+        }
+        CarChangeEvent merged = new CarChangeEvent(false, changed.values(), deleted);
+        for (String name : later.deleted) {
+            merged.changed.remove(name);
+            merged.deleted.add(name);
+        }
+        for (Car car : later.changed.values()) {
+            merged.deleted.remove(car.getName());
+            merged.changed.put(car.getName(), car);
+        }
+        return merged;
+    }
+
+    @Override
+    public String toString() {
+        return reload ? "CarChangeEvent[reload]" : "CarChangeEvent[changed=" + changed.keySet() + ", deleted=" + deleted + "]";
+    }
+}
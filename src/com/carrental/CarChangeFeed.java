@@ -0,0 +1,141 @@
+// src/com/carrental/CarChangeFeed.java
+package com.carrental;
+
+import com.carrental.model.Car;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns the backend's "catalog changed" notices into {@link CarChangeEvent}s for the UI. A
+ * notice carries only the new version; if the synced catalog is behind it, one background
+ * thread fetches the changes (GET_CHANGES_SINCE) and the catalog list is updated on the EDT,
+ * where the screens read it. A burst of notices costs one fetch, and the events of several
+ * syncs that land before the EDT gets to them reach listeners as one.
+ *
+ * Any sync of the catalog raises events, not only the ones this feed starts, so a screen also
+ * hears about changes another screen synced first.
+ */
+class CarChangeFeed {
+    private static final Log log = Log.of(CarChangeFeed.class);
+
+    private final List<CarChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService fetcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "car-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean fetchQueued = new AtomicBoolean();
+    private final AtomicLong latestVersion = new AtomicLong(CarResponse.NO_VERSION); // Newest version announced
+    private volatile boolean resyncWanted; // A notice without a version: fetch whatever the version says
+    private volatile long fetchedVersion = CarResponse.NO_VERSION; // Newest version a fetch of ours brought back
+    private volatile CatalogSync catalog;
+    private CarChangeEvent undelivered; // Guarded by this; waiting for the EDT
+
+    /** Events are raised from this catalog's syncs and it is what a notice brings up to date. */
+    synchronized void follow(CatalogSync followed) {
+        catalog = followed;
+        followed.onChange(this::publish);
+    }
+
+    synchronized Runnable subscribe(CarChangeListener listener) {
+        listeners.add(listener);
+        if (catalog == null) { // No screen keeps a synced catalog; keep one just for the events
+            follow(new CatalogSync(new ArrayList<>()));
+            catalogChanged(CarResponse.NO_VERSION);
+        }
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * The backend's catalog is now at version (NO_VERSION: unknown, e.g. a new process).
+     * Called from transport threads, so it only queues the fetch.
+     */
+    void catalogChanged(long version) {
+        CatalogSync followed = catalog;
+        if (followed == null || listeners.isEmpty()) {
+            return; // Nobody to tell; whoever subscribes next syncs first anyway
+        }
+        if (version == CarResponse.NO_VERSION) {
+            resyncWanted = true;
+        } else if (latestVersion.accumulateAndGet(version, Math::max) <= Math.max(followed.version(), fetchedVersion)) {
+            return; // Already synced, or already fetched and on its way to the EDT
+        }
+        if (fetchQueued.compareAndSet(false, true)) {
+            try {
+                fetcher.execute(this::fetchChanges);
+            } catch (RejectedExecutionException e) {
+                fetchQueued.set(false); // Shut down
+            }
+        }
+    }
+
+    void close() {
+        fetcher.shutdownNow();
+    }
+
+    private void fetchChanges() {
+        fetchQueued.set(false); // A notice from here on queues another fetch
+        CatalogSync followed = catalog;
+        boolean resync = resyncWanted;
+        resyncWanted = false;
+        long since = followed.version();
+        if (!resync && latestVersion.get() <= Math.max(since, fetchedVersion)) {
+            return; // The notice was for a version this or another sync has since reached
+        }
+        CarResponse response = CarService.getChangesSince(since);
+        if (response == null) {
+            return; // Backend unreachable; the next notice tries again
+        }
+        if (!CatalogSync.isChanges(response)) {
+            List<Car> latest = followed.fetchAll(response); // A backend without deltas: the full load stays off the EDT
+            SwingUtilities.invokeLater(() -> followed.reload(latest));
+            return;
+        }
+        fetchedVersion = Math.max(fetchedVersion, response.version);
+        SwingUtilities.invokeLater(() -> {
+            if (!followed.apply(since, response) && followed.version() < response.version) {
+                // Another sync moved the list on in between, but not as far as this fetch had
+                catalogChanged(CarResponse.NO_VERSION);
+            }
+        });
+    }
+
+    /** Called by the catalog after each sync that changed it, on whatever thread synced. */
+    private void publish(CarChangeEvent event) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        boolean schedule;
+        synchronized (this) {
+            schedule = undelivered == null;
+            undelivered = schedule ? event : undelivered.merge(event);
+        }
+        if (schedule) {
+            SwingUtilities.invokeLater(this::deliver);
+        }
+    }
+
+    private void deliver() {
+        CarChangeEvent event;
+        synchronized (this) {
+            event = undelivered;
+            undelivered = null;
+        }
+        log.debug(() -> "Delivering " + event + " to " + listeners.size() + " listener(s).");
+        for (CarChangeListener listener : listeners) {
+            try {
+                listener.carsChanged(event);
+            } catch (RuntimeException e) {
+                log.error("Car change listener failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+// src/com/carrental/CarChangeListener.java
+package com.carrental;
+
+/**
+ * Told about changes to the car catalog; see {@link CarService#onCarChanged}. Always called on
+ * the Event Dispatch Thread, so it may update Swing components directly.
+ */
+@FunctionalInterface
+public interface CarChangeListener {
+    void carsChanged(CarChangeEvent event);
+}
@@ -0,0 +1,78 @@
+// src/com/carrental/CarCommand.java
+package com.carrental;
+
+import com.carrental.model.Car;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One add, update or delete for {@link CarService#executeBatch}. The batch travels to the
+ * backend as a single BATCH command and every item comes back with its own {@link Result}.
+ */
+public final class CarCommand {
+    private final String action;
+    private final Car car;
+    private final String carName;
+
+    private CarCommand(String action, Car car, String carName) {
+        this.action = action;
+        this.car = car;
+        this.carName = carName;
+    }
+
+    public static CarCommand add(Car car) {
+        return new CarCommand("ADD_CAR", car, car.getName());
+    }
+
+    public static CarCommand update(Car car) {
+        return new CarCommand("UPDATE_CAR", car, car.getName());
+    }
+
+    public static CarCommand delete(String carName) {
+        return new CarCommand("DELETE_CAR", null, carName);
+    }
+
+    public String getAction() { return action; }
+    public Car getCar() { return car; }
+    public String getCarName() { return carName; }
+
+    /** The same map the single-command methods send, minus the id. */
+    Map<String, Object> toCommandMap() {
+        Map<String, Object> command = new HashMap<>();
+        command.put("action", action);
+        if (car != null) {
+            command.put("car", car);
+        } else {
+            command.put("carName", carName);
+        }
+        return command;
+    }
+
+    @Override
+    public String toString() {
+        return action + " " + carName;
+    }
+
+    /** Outcome of one command in a batch. */
+    public static final class Result {
+        private final CarCommand command;
+        private final boolean success;
+        private final String message;
+
+        Result(CarCommand command, boolean success, String message) {
+            this.command = command;
+            this.success = success;
+            this.message = message;
+        }
+
+        public CarCommand getCommand() { return command; }
+        public boolean isSuccess() { return success; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return command + ": " + (success ? "success" : "error") + (message == null || message.isEmpty() ? "" : " (" + message + ")");
+        }
+    }
+}
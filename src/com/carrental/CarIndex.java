@@ -0,0 +1,236 @@
+// src/com/carrental/CarIndex.java
+package com.carrental;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Secondary indexes over CarCatalog rows: a bitmap of rows per type code (the catalog's label
+ * dictionary is the hash part), a bitmap of available rows, and price and rating kept sorted
+ * for range lookups. Each knows how many rows it holds for a condition without visiting them,
+ * which is what CarCatalog's planner compares to pick the narrowest starting set. Only live
+ * rows are indexed; CarCatalog adds a row after writing it and removes it before changing or
+ * deleting it, and rebuilds everything when compaction renumbers rows.
+ *
+ * Not thread-safe, like CarCatalog itself.
+ */
+final class CarIndex {
+    private final List<BitSet> rowsByType = new ArrayList<>(); // Indexed by type code
+    private final List<int[]> typeCounts = new ArrayList<>();  // One-element counters, same index
+    private final BitSet available = new BitSet();
+    private int availableCount;
+    private final RangeIndex prices = new RangeIndex();
+    private final RangeIndex ratings = new RangeIndex();
+
+    void add(int row, int typeCode, boolean isAvailable, double price, double rating) {
+        while (rowsByType.size() <= typeCode) {
+            rowsByType.add(new BitSet());
+            typeCounts.add(new int[1]);
+        }
+        rowsByType.get(typeCode).set(row);
+        typeCounts.get(typeCode)[0]++;
+        if (isAvailable) {
+            available.set(row);
+            availableCount++;
+        }
+        prices.insert(price, row);
+        ratings.insert(rating, row);
+    }
+
+    /** Takes the row out; the values must be the ones it was added with. */
+    void remove(int row, int typeCode, boolean isAvailable, double price, double rating) {
+        rowsByType.get(typeCode).clear(row);
+        typeCounts.get(typeCode)[0]--;
+        if (isAvailable) {
+            available.clear(row);
+            availableCount--;
+        }
+        prices.delete(price, row);
+        ratings.delete(rating, row);
+    }
+
+    void clear() {
+        rowsByType.clear();
+        typeCounts.clear();
+        available.clear();
+        availableCount = 0;
+        prices.clear();
+        ratings.clear();
+    }
+
+    /** Sorts what a bulk fill left unsorted. */
+    void settle() {
+        prices.ensureSorted();
+        ratings.ensureSorted();
+    }
+
+    boolean isAvailable(int row) {
+        return available.get(row);
+    }
+
+    int typeCount(int typeCode) {
+        return typeCode < typeCounts.size() ? typeCounts.get(typeCode)[0] : 0;
+    }
+
+    /** The rows of this type; a copy the caller may change. */
+    BitSet typeRows(int typeCode) {
+        return typeCode < rowsByType.size() ? (BitSet) rowsByType.get(typeCode).clone() : new BitSet();
+    }
+
+    int availableCount() {
+        return availableCount;
+    }
+
+    /** The live available rows as the index holds them. Callers must not change it. */
+    BitSet availableRows() {
+        return available;
+    }
+
+    int countPriceAtMost(double maxPrice) {
+        return prices.countAtMost(maxPrice);
+    }
+
+    int[] rowsPriceAtMost(double maxPrice) {
+        return prices.rowsAtMost(maxPrice);
+    }
+
+    int countRatingAtLeast(double minRating) {
+        return ratings.countAtLeast(minRating);
+    }
+
+    int[] rowsRatingAtLeast(double minRating) {
+        return ratings.rowsAtLeast(minRating);
+    }
+
+    /**
+     * Rows ordered by (value, row) in parallel arrays, so a bound is a binary search away and
+     * the rows within it are one contiguous stretch. Once in use, an insert or delete shifts the
+     * tail with one arraycopy; while a cleared catalog is being filled, inserts just append and
+     * the whole lot is sorted once when first read. NaN values are left out: they fail every
+     * range condition anyway.
+     */
+    private static final class RangeIndex {
+        private double[] values = new double[64];
+        private int[] rows = new int[64];
+        private int size;
+        private boolean sorted;
+
+        void insert(double value, int row) {
+            if (Double.isNaN(value)) {
+                return;
+            }
+            value += 0.0; // -0.0 becomes 0.0, so sorting and <= agree
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            int at = sorted ? position(value, row) : size;
+            System.arraycopy(values, at, values, at + 1, size - at);
+            System.arraycopy(rows, at, rows, at + 1, size - at);
+            values[at] = value;
+            rows[at] = row;
+            size++;
+        }
+
+        void delete(double value, int row) {
+            if (Double.isNaN(value)) {
+                return;
+            }
+            value += 0.0;
+            ensureSorted();
+            int at = position(value, row);
+            if (at < size && values[at] == value && rows[at] == row) {
+                System.arraycopy(values, at + 1, values, at, size - at - 1);
+                System.arraycopy(rows, at + 1, rows, at, size - at - 1);
+                size--;
+            }
+        }
+
+        void clear() {
+            size = 0;
+            sorted = false;
+        }
+
+        int countAtMost(double max) {
+            ensureSorted();
+            return firstAbove(max);
+        }
+
+        int[] rowsAtMost(double max) {
+            ensureSorted();
+            return Arrays.copyOfRange(rows, 0, firstAbove(max));
+        }
+
+        int countAtLeast(double min) {
+            ensureSorted();
+            return size - firstAtLeast(min);
+        }
+
+        int[] rowsAtLeast(double min) {
+            ensureSorted();
+            return Arrays.copyOfRange(rows, firstAtLeast(min), size);
+        }
+
+        void ensureSorted() {
+            if (sorted) {
+                return;
+            }
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> values[a] != values[b] ? Double.compare(values[a], values[b]) : Integer.compare(rows[a], rows[b]));
+            double[] sortedValues = new double[values.length];
+            int[] sortedRows = new int[rows.length];
+            for (int i = 0; i < size; i++) {
+                sortedValues[i] = values[order[i]];
+                sortedRows[i] = rows[order[i]];
+            }
+            values = sortedValues;
+            rows = sortedRows;
+            sorted = true;
+        }
+
+        /** Where (value, row) is or would go. */
+        private int position(double value, int row) {
+            int low = 0, high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < value || (values[mid] == value && rows[mid] < row)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int firstAbove(double max) {
+            int low = 0, high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] <= max) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int firstAtLeast(double min) {
+            int low = 0, high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < min) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -11,9 +11,15 @@ import javax.swing.border.EmptyBorder;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.geom.RoundRectangle2D;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
@@ -30,14 +36,25 @@ import java.io.IOException;
 import javax.swing.plaf.basic.BasicScrollBarUI;
 
 public class CarListPage {
+    private static final Log log = Log.of(CarListPage.class);
 
     private JFrame frame;
     private List<Car> allCars; // Now populated by SwingWorker
     private JPanel carDisplayPanel; // Panel to hold car cards
+    // The cards on screen by car name, so a change event replaces only the cards it touches
+    private final Map<String, JPanel> cardsByName = new HashMap<>();
     private JScrollPane scrollPane; // Scroll pane to hold carDisplayPanel
     private JTextField searchField;
     private JComboBox<String> typeFilterComboBox;
     private JComboBox<String> availabilityFilterComboBox;
+    private JComboBox<String> seatsFilterComboBox;
+    // Search-as-you-type: suggestions follow every keystroke, the cards follow once typing pauses
+    private static final int SUGGESTION_LIMIT = 8;
+    private static final int SEARCH_DELAY_MS = 150;
+    private JPopupMenu suggestionPopup;
+    private final DefaultListModel<String> suggestionModel = new DefaultListModel<>();
+    private JList<String> suggestionList;
+    private Timer searchDelay;
 
     private JDialog filterDialog;
     private JPanel headerPanel;
@@ -74,7 +91,7 @@ public class CarListPage {
 
     public CarListPage() {
         long constructorStartTime = System.currentTimeMillis();
-        System.out.println("CarListPage: Constructor started at " + constructorStartTime + " ms.");
+        log.debug(() -> "Constructor started at " + constructorStartTime + " ms.");
 
         // allCars will be populated asynchronously
         this.allCars = new ArrayList<>();
@@ -110,12 +127,12 @@ public class CarListPage {
                     if (bgUrl != null) {
                         backgroundImage = ImageIO.read(bgUrl);
                     } else {
-                        System.err.println("CarListPage: Background image '/Images/1112.jpg' not found on classpath.");
+                        log.warn("Background image '/Images/1112.jpg' not found on classpath.");
                     }
                 } catch (IOException e) {
-                    System.err.println("CarListPage: Exception loading background image: " + e.getMessage());
+                    log.error("Exception loading background image: " + e.getMessage());
                 } catch (IllegalArgumentException e) {
-                    System.err.println("CarListPage: Invalid URL for background image. Path: /Images/1112.jpg - " + e.getMessage());
+                    log.error("Invalid URL for background image. Path: /Images/1112.jpg - " + e.getMessage());
                 }
             }
 
@@ -261,7 +278,7 @@ public class CarListPage {
         // The actual car data fetching is performed in the background to keep the UI responsive.
         loadCarDataAsync(contentPanel); // Pass the contentPanel to swap components
 
-        System.out.println("CarListPage: Constructor finished. Time taken: " + (System.currentTimeMillis() - constructorStartTime) + " ms.");
+        log.debug(() -> "Constructor finished. Time taken: " + (System.currentTimeMillis() - constructorStartTime) + " ms.");
     }
 
     // --- NEW: Method to load car data asynchronously ---
@@ -272,7 +289,7 @@ public class CarListPage {
             @Override
             protected List<Car> doInBackground() throws Exception {
                 backgroundTaskStartTime = System.currentTimeMillis();
-                System.out.println("CarListPage: SwingWorker: doInBackground started (calling LoginPage.getCars()) at " + backgroundTaskStartTime + " ms.");
+                log.debug(() -> "doInBackground started (calling LoginPage.getCars()) at " + backgroundTaskStartTime + " ms.");
                 // This runs on a background thread.
                 // Call LoginPage.getCars() which is now expected to be pre-populated or will trigger CarService.getAllCars()
                 return LoginPage.getCars();
@@ -281,14 +298,14 @@ public class CarListPage {
             @Override
             protected void done() {
                 long doneMethodStartTime = System.currentTimeMillis();
-                System.out.println("CarListPage: SwingWorker: done() started (updating UI) at " + doneMethodStartTime + " ms.");
+                log.debug(() -> "done() started (updating UI) at " + doneMethodStartTime + " ms.");
                 try {
                     allCars = get(); // Get the result from the background task
                     if (allCars == null) {
                         allCars = new ArrayList<>(); // Ensure it's not null
-                        System.err.println("CarListPage: SwingWorker: allCars is null after background fetch. Initializing empty list.");
+                        log.warn("allCars is null after background fetch. Initializing empty list.");
                     }
-                    System.out.println("CarListPage: SwingWorker: Car data retrieved. Backend/Data fetch time: " + (doneMethodStartTime - backgroundTaskStartTime) + " ms. Total cars: " + allCars.size());
+                    log.debug(() -> "Car data retrieved. Backend/Data fetch time: " + (doneMethodStartTime - backgroundTaskStartTime) + " ms. Total cars: " + allCars.size());
 
                     // Remove the loading indicator
                     contentPanel.remove(loadingIndicatorPanel);
@@ -355,17 +372,26 @@ public class CarListPage {
 
                     long displayCarsStartTime = System.currentTimeMillis();
                     displayCars(allCars); // Display all cars initially
-                    System.out.println("CarListPage: SwingWorker: displayCars() execution time (UI rendering): " + (System.currentTimeMillis() - displayCarsStartTime) + " ms for " + allCars.size() + " cars.");
+                    log.debug(() -> "displayCars() execution time (UI rendering): " + (System.currentTimeMillis() - displayCarsStartTime) + " ms for " + allCars.size() + " cars.");
+
+                    // Keep the cards current as cars change here or in another terminal
+                    Runnable unsubscribe = CarService.onCarChanged(CarListPage.this::onCarsChanged);
+                    frame.addWindowListener(new WindowAdapter() {
+                        @Override
+                        public void windowClosed(WindowEvent e) {
+                            unsubscribe.run();
+                        }
+                    });
 
 
                     // Revalidate and repaint the entire hierarchy
                     rootPanel.revalidate();
                     rootPanel.repaint();
-                    System.out.println("CarListPage: SwingWorker: done() method finished. Total UI update time: " + (System.currentTimeMillis() - doneMethodStartTime) + " ms.");
+                    log.debug(() -> "done() method finished. Total UI update time: " + (System.currentTimeMillis() - doneMethodStartTime) + " ms.");
 
 
                 } catch (Exception e) {
-                    System.err.println("CarListPage: SwingWorker: Error during background task or UI update: " + e.getMessage());
+                    log.error("Error during background task or UI update: " + e.getMessage());
                     JOptionPane.showMessageDialog(frame, "Failed to load car data. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
                     // Handle error: e.g., display empty list, show error message, or revert to login
                     allCars = new ArrayList<>(); // Ensure it's not null even on error
@@ -424,14 +450,10 @@ public class CarListPage {
         gbc.gridy++;
         dialogContent.add(new JLabel("Search:", SwingConstants.RIGHT) {{ setForeground(THEME_LIGHT_GRAY_TEXT); setFont(new Font("Segoe UI", Font.BOLD, 12)); }}, gbc);
         gbc.gridx = 1;
-        searchField = createStyledTextField("Search by Car Name");
+        searchField = createStyledTextField("Search name, type or class");
         searchField.setPreferredSize(new Dimension(180, 30)); // Smaller for dialog
-        searchField.addActionListener(e -> { applyFilters(); filterDialog.dispose(); }); // Apply and close on Enter
-        searchField.addKeyListener(new java.awt.event.KeyAdapter() {
-            public void keyReleased(java.awt.event.KeyEvent e) {
-                applyFilters(); // Apply on key release
-            }
-        });
+        searchField.addActionListener(e -> { searchDelay.stop(); applyFilters(); filterDialog.dispose(); }); // Apply and close on Enter
+        initializeSuggestions();
         dialogContent.add(searchField, gbc);
 
         // Type Filter - Model will be set after async data load
@@ -455,6 +477,16 @@ public class CarListPage {
         availabilityFilterComboBox.addActionListener(e -> applyFilters());
         dialogContent.add(availabilityFilterComboBox, gbc);
 
+        // Seats Filter: "N+" keeps cars with at least N seats
+        gbc.gridy++;
+        gbc.gridx = 0;
+        dialogContent.add(new JLabel("Seats:", SwingConstants.RIGHT) {{ setForeground(THEME_LIGHT_GRAY_TEXT); setFont(new Font("Segoe UI", Font.BOLD, 12)); }}, gbc);
+        gbc.gridx = 1;
+        seatsFilterComboBox = createStyledComboBox(new String[]{"Any", "2+", "4+", "5+", "7+"});
+        seatsFilterComboBox.setPreferredSize(new Dimension(180, 30));
+        seatsFilterComboBox.addActionListener(e -> applyFilters());
+        dialogContent.add(seatsFilterComboBox, gbc);
+
         // Spacer
         gbc.gridy++;
         gbc.gridx = 0;
@@ -501,6 +533,124 @@ public class CarListPage {
         filterDialog.setResizable(false);
     }
 
+    /**
+     * The suggestions dropdown under the search field. It never takes focus, so typing carries
+     * on in the field; Up/Down move through it, Enter or a click takes a suggestion and Escape
+     * closes it.
+     */
+    private void initializeSuggestions() {
+        suggestionList = new JList<>(suggestionModel);
+        suggestionList.setFocusable(false);
+        suggestionList.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        suggestionList.setBackground(new Color(50, 50, 50));
+        suggestionList.setForeground(THEME_TEXT_PRIMARY);
+        suggestionList.setSelectionBackground(THEME_YELLOW_DARK);
+        suggestionList.setSelectionForeground(THEME_TEXT_ACCENT);
+        suggestionList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        suggestionList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = suggestionList.locationToIndex(e.getPoint());
+                if (index >= 0) {
+                    acceptSuggestion(suggestionModel.get(index));
+                }
+            }
+        });
+
+        suggestionPopup = new JPopupMenu();
+        suggestionPopup.setFocusable(false);
+        suggestionPopup.setBorder(BorderFactory.createLineBorder(new Color(255, 255, 255, 50), 1));
+        suggestionPopup.add(suggestionList);
+
+        searchDelay = new Timer(SEARCH_DELAY_MS, e -> applyFilters());
+        searchDelay.setRepeats(false);
+
+        searchField.addKeyListener(new java.awt.event.KeyAdapter() {
+            @Override
+            public void keyPressed(java.awt.event.KeyEvent e) {
+                if (!suggestionPopup.isVisible()) {
+                    return;
+                }
+                int selected = suggestionList.getSelectedIndex();
+                switch (e.getKeyCode()) {
+                    case java.awt.event.KeyEvent.VK_DOWN:
+                        suggestionList.setSelectedIndex(Math.min(selected + 1, suggestionModel.size() - 1));
+                        e.consume();
+                        break;
+                    case java.awt.event.KeyEvent.VK_UP:
+                        if (selected <= 0) {
+                            suggestionList.clearSelection();
+                        } else {
+                            suggestionList.setSelectedIndex(selected - 1);
+                        }
+                        e.consume();
+                        break;
+                    case java.awt.event.KeyEvent.VK_ENTER:
+                        if (selected >= 0) {
+                            acceptSuggestion(suggestionModel.get(selected));
+                            e.consume(); // Keeps the field's own Enter action from closing the dialog
+                        }
+                        break;
+                    case java.awt.event.KeyEvent.VK_ESCAPE:
+                        suggestionPopup.setVisible(false);
+                        e.consume();
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            @Override
+            public void keyReleased(java.awt.event.KeyEvent e) {
+                switch (e.getKeyCode()) {
+                    case java.awt.event.KeyEvent.VK_DOWN:
+                    case java.awt.event.KeyEvent.VK_UP:
+                    case java.awt.event.KeyEvent.VK_ENTER:
+                    case java.awt.event.KeyEvent.VK_ESCAPE:
+                        return;
+                    default:
+                        showSuggestions();
+                        searchDelay.restart(); // Rebuilding the cards waits until typing pauses
+                }
+            }
+        });
+        searchField.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(java.awt.event.FocusEvent e) {
+                suggestionPopup.setVisible(false);
+            }
+        });
+    }
+
+    private void showSuggestions() {
+        String text = searchField.getText();
+        List<String> suggestions = allCars == LoginPage.allCars && !text.trim().isEmpty()
+                ? LoginPage.catalogSync.suggest(text, SUGGESTION_LIMIT)
+                : Collections.emptyList();
+        if (suggestions.isEmpty()) {
+            suggestionPopup.setVisible(false);
+            return;
+        }
+        suggestionModel.clear();
+        for (String suggestion : suggestions) {
+            suggestionModel.addElement(suggestion);
+        }
+        suggestionList.setVisibleRowCount(suggestions.size());
+        suggestionPopup.setPopupSize(searchField.getWidth(), suggestionList.getPreferredSize().height + 2);
+        if (suggestionPopup.isVisible()) {
+            suggestionPopup.pack();
+        } else {
+            suggestionPopup.show(searchField, 0, searchField.getHeight());
+        }
+    }
+
+    private void acceptSuggestion(String suggestion) {
+        searchField.setText(suggestion);
+        suggestionPopup.setVisible(false);
+        searchDelay.stop();
+        applyFilters();
+    }
+
     private void showFilterDialog() {
         Point p = frame.getLocationOnScreen();
         // Position the dialog relative to the header button, or top-left of the frame
@@ -513,6 +663,7 @@ public class CarListPage {
     private void displayCars(List<Car> carsToDisplay) {
         long displayCarsMethodStartTime = System.currentTimeMillis();
         carDisplayPanel.removeAll(); // Clear existing cards
+        cardsByName.clear();
 
         if (carsToDisplay.isEmpty()) {
             JLabel noCarsLabel = new JLabel("No cars match your criteria.", SwingConstants.CENTER);
@@ -521,12 +672,60 @@ public class CarListPage {
             carDisplayPanel.add(noCarsLabel);
         } else {
             for (Car car : carsToDisplay) {
-                carDisplayPanel.add(createCarCard(car));
+                JPanel card = createCarCard(car);
+                carDisplayPanel.add(card);
+                cardsByName.put(car.getName(), card);
+            }
+        }
+        carDisplayPanel.revalidate();
+        carDisplayPanel.repaint();
+        log.debug(() -> "displayCars() total UI rendering time: " + (System.currentTimeMillis() - displayCarsMethodStartTime) + " ms for " + carsToDisplay.size() + " cars.");
+    }
+
+    /**
+     * Applies a catalog change to the cards on screen: a changed car's card is rebuilt in
+     * place, a car that no longer passes the filters loses its card, and a new or newly
+     * passing car gets one at the end. A reload redraws everything through the filters.
+     */
+    private void onCarsChanged(CarChangeEvent event) {
+        if (carDisplayPanel == null) {
+            return; // Still loading; the first display will show the current cars
+        }
+        if (event.isReload() || cardsByName.isEmpty()) { // Empty: the "no cars" label is up
+            applyFilters();
+            return;
+        }
+        for (String name : event.getDeletedNames()) {
+            JPanel card = cardsByName.remove(name);
+            if (card != null) {
+                carDisplayPanel.remove(card);
+            }
+        }
+        Predicate<Car> filters = currentFilters();
+        for (Car car : event.getChangedCars()) {
+            JPanel oldCard = cardsByName.remove(car.getName());
+            if (!filters.test(car)) {
+                if (oldCard != null) {
+                    carDisplayPanel.remove(oldCard);
+                }
+                continue;
+            }
+            JPanel card = createCarCard(car);
+            if (oldCard != null) {
+                int index = carDisplayPanel.getComponentZOrder(oldCard);
+                carDisplayPanel.remove(index);
+                carDisplayPanel.add(card, index);
+            } else {
+                carDisplayPanel.add(card);
             }
+            cardsByName.put(car.getName(), card);
+        }
+        if (cardsByName.isEmpty()) {
+            displayCars(Collections.emptyList()); // Puts up the "no cars" label
+            return;
         }
         carDisplayPanel.revalidate();
         carDisplayPanel.repaint();
-        System.out.println("CarListPage: displayCars() total UI rendering time: " + (System.currentTimeMillis() - displayCarsMethodStartTime) + " ms for " + carsToDisplay.size() + " cars.");
     }
 
     private JPanel createCarCard(Car car) {
@@ -583,7 +782,7 @@ public class CarListPage {
                         }
                     }
                 } catch (IOException | IllegalArgumentException e) {
-                    System.err.println("CarListPage: Error loading image for car " + car.getName() + " from " + imagePath + ": " + e.getMessage());
+                    log.error("Error loading image for car " + car.getName() + " from " + imagePath + ": " + e.getMessage());
                 }
                 return null;
             }
@@ -600,7 +799,7 @@ public class CarListPage {
                         carImageLabel.setFont(new Font("Segoe UI", Font.BOLD, 10));
                     }
                 } catch (Exception e) {
-                    System.err.println("CarListPage: Error setting car image for " + car.getName() + ": " + e.getMessage());
+                    log.error("Error setting car image for " + car.getName() + ": " + e.getMessage());
                     carImageLabel.setText("<html><center>Error setting image:<br>" + imagePath + "</center></html>");
                     carImageLabel.setForeground(Color.RED);
                     carImageLabel.setFont(new Font("Segoe UI", Font.BOLD, 10));
@@ -713,26 +912,61 @@ public class CarListPage {
 
     private void applyFilters() {
         if (allCars == null) {
-            System.err.println("CarListPage: allCars is null during filter application. Data might not be loaded yet.");
+            log.warn("allCars is null during filter application. Data might not be loaded yet.");
             return;
         }
 
-        String searchText = searchField.getText().toLowerCase();
+        List<Car> filteredCars;
+        if (allCars == LoginPage.allCars) {
+            // The synced catalog: scan its columns and touch only the cars that match
+            String selectedType = (String) typeFilterComboBox.getSelectedItem();
+            String selectedAvailability = (String) availabilityFilterComboBox.getSelectedItem();
+            filteredCars = LoginPage.catalogSync.select(searchField.getText(),
+                    "All Types".equals(selectedType) ? null : selectedType,
+                    "All".equals(selectedAvailability) ? null : Boolean.valueOf("Available".equals(selectedAvailability)),
+                    selectedMinSeats());
+        } else {
+            filteredCars = allCars.stream()
+                    .filter(currentFilters())
+                    .collect(Collectors.toList());
+        }
+
+        displayCars(filteredCars);
+    }
+
+    private int selectedMinSeats() {
+        String selectedSeats = (String) seatsFilterComboBox.getSelectedItem();
+        return selectedSeats == null || "Any".equals(selectedSeats) ? 0 : Integer.parseInt(selectedSeats.replace("+", ""));
+    }
+
+    /**
+     * The search text (in the name, type or vehicle class), type, availability and seats
+     * currently chosen, as one test. The
+     * controls are read once here rather than once per car.
+     */
+    private Predicate<Car> currentFilters() {
+        String searchText = searchField.getText().toLowerCase(Locale.ROOT);
         String selectedType = (String) typeFilterComboBox.getSelectedItem();
         String selectedAvailability = (String) availabilityFilterComboBox.getSelectedItem();
+        int minSeats = selectedMinSeats();
 
-        List<Car> filteredCars = allCars.stream()
-                .filter(car -> car.getName().toLowerCase().contains(searchText) ||
-                        car.getType().toLowerCase().contains(searchText))
-                .filter(car -> "All Types".equals(selectedType) || car.getType().equals(selectedType))
-                .filter(car -> {
-                    if ("All".equals(selectedAvailability)) return true;
-                    if ("Available".equals(selectedAvailability)) return car.isAvailable();
-                    return !car.isAvailable(); // "Unavailable"
-                })
-                .collect(Collectors.toList());
-
-        displayCars(filteredCars);
+        return car -> {
+            if (!car.getName().toLowerCase(Locale.ROOT).contains(searchText) && !car.getType().toLowerCase(Locale.ROOT).contains(searchText)
+                    && !car.getVehicleClass().toLowerCase(Locale.ROOT).contains(searchText)) {
+                return false;
+            }
+            // The type items come from the cars themselves, so a decoded car's type is the very same
+            // String (CarStrings) and equals() settles on its identity check
+            if (!"All Types".equals(selectedType) && !car.getType().equals(selectedType)) {
+                return false;
+            }
+            if (car.getSeatCount() < minSeats) { // Parsed once when the car was read
+                return false;
+            }
+            if ("All".equals(selectedAvailability)) return true;
+            if ("Available".equals(selectedAvailability)) return car.isAvailable();
+            return !car.isAvailable(); // "Unavailable"
+        };
     }
 
     // --- Helper Methods for UI Components and Window Management ---
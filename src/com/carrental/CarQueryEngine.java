@@ -0,0 +1,97 @@
+// src/com/carrental/CarQueryEngine.java
+package com.carrental;
+
+import com.carrental.model.Car;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The backend's search, filter and sort rules (CarManager's searchCars, filterCars and
+ * sortCars) over any cars given in catalog order. CarCatalogEngine runs them over its store and
+ * CarService over the synced catalog snapshot, so a query answered locally matches the backend's
+ * answer, order included. Results are new lists holding the same Car objects.
+ */
+final class CarQueryEngine {
+    private CarQueryEngine() {
+    }
+
+    /** Case-insensitive substring match on one field; an unknown field matches only an empty query. */
+    static List<Car> search(Collection<Car> cars, String query, String searchField) {
+        String lowerQuery = query.toLowerCase(Locale.ROOT);
+        List<Car> results = new ArrayList<>();
+        for (Car car : cars) {
+            String fieldValue = searchableField(car, searchField);
+            if (fieldValue.toLowerCase(Locale.ROOT).contains(lowerQuery)) {
+                results.add(car);
+            }
+        }
+        return results;
+    }
+
+    private static String searchableField(Car car, String searchField) {
+        String value;
+        switch (searchField) {
+            case "name": value = car.getName(); break;
+            case "type": value = car.getType(); break;
+            case "vehicleClass": value = car.getVehicleClass(); break;
+            case "transmission": value = car.getTransmission(); break;
+            case "mileage": value = car.getMileage(); break;
+            case "maxSpeed": value = car.getMaxSpeed(); break;
+            case "seats": value = car.getSeats(); break;
+            case "releaseDate": value = car.getReleaseDate(); break;
+            default: value = ""; break;
+        }
+        return value == null ? "" : value;
+    }
+
+    /**
+     * An empty typeFilter matches every type; minSeats 0 matches any seat count, even an unknown
+     * one; an infinite minRating or maxPrice matches any rating or price, even NaN.
+     */
+    static List<Car> filter(Collection<Car> cars, String typeFilter, double minRating, double maxPrice, boolean availableOnly,
+                            int minSeats) {
+        List<Car> results = new ArrayList<>();
+        for (Car car : cars) {
+            boolean passesType = typeFilter.isEmpty() || typeFilter.equals(car.getType());
+            boolean passesRating = minRating == Double.NEGATIVE_INFINITY || car.getRating() >= minRating;
+            boolean passesPrice = maxPrice == Double.POSITIVE_INFINITY || car.getPrice() <= maxPrice;
+            boolean passesAvailability = !availableOnly || car.isAvailable();
+            boolean passesSeats = car.getSeatCount() >= minSeats;
+            if (passesType && passesRating && passesPrice && passesAvailability && passesSeats) {
+                results.add(car);
+            }
+        }
+        return results;
+    }
+
+    /** filter() over the same cars as columns: the same rules and order, found by a column scan. */
+    static List<Car> filter(CarCatalog columns, String typeFilter, double minRating, double maxPrice, boolean availableOnly,
+                            int minSeats) {
+        return columns.cars(columns.scan(null, typeFilter.isEmpty() ? null : typeFilter, availableOnly ? Boolean.TRUE : null,
+                minRating, maxPrice, minSeats));
+    }
+
+    /**
+     * Stable, like the C++ stable_sort: ties keep catalog order either way round. "seats",
+     * "maxSpeed" and "mileage" sort on the parsed numbers, with unparseable specs as 0.
+     */
+    static List<Car> sort(Collection<Car> cars, String sortBy, boolean ascending) {
+        List<Car> sorted = new ArrayList<>(cars);
+        Comparator<Car> order;
+        switch (sortBy) {
+            case "name": order = Comparator.comparing(Car::getName, Comparator.nullsFirst(Comparator.naturalOrder())); break;
+            case "price": order = Comparator.comparingDouble(Car::getPrice); break;
+            case "rating": order = Comparator.comparingDouble(Car::getRating); break;
+            case "seats": order = Comparator.comparingInt(Car::getSeatCount); break;
+            case "maxSpeed": order = Comparator.comparingDouble(Car::getMaxSpeedKmh); break;
+            case "mileage": order = Comparator.comparingDouble(Car::getMileageKmpl); break;
+            default: return sorted; // Unrecognised keys leave the catalog order alone
+        }
+        sorted.sort(ascending ? order : order.reversed());
+        return sorted;
+    }
+}
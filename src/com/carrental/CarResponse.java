@@ -0,0 +1,59 @@
+// src/com/carrental/CarResponse.java
+package com.carrental;
+
+import com.carrental.model.Car;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A decoded backend response envelope: the echoed command id, "success"/"error" status, an
+ * optional message and the data payload. Codecs that can build Car objects straight from the
+ * wire hand them over in {@link #cars}; otherwise {@link #data} holds the generic JSON-shaped
+ * value (maps, lists, doubles, strings, booleans). {@link #version} is the backend's catalog
+ * version at the time it answered, or {@link #NO_VERSION} if the backend does not report one.
+ */
+final class CarResponse {
+    static final long NO_VERSION = -1;
+
+    final String id;
+    final String status;
+    final String message;
+    final Object data;
+    final List<Car> cars;
+    final long version;
+
+    CarResponse(String id, String status, String message, Object data, List<Car> cars) {
+        this(id, status, message, data, cars, NO_VERSION);
+    }
+
+    CarResponse(String id, String status, String message, Object data, List<Car> cars, long version) {
+        this.id = id;
+        this.status = status;
+        this.message = message;
+        this.data = data;
+        this.cars = cars;
+        this.version = version;
+    }
+
+    /** Builds the envelope from a generic decoded object, picking out a car list if present. */
+    @SuppressWarnings("unchecked")
+    static CarResponse fromMap(Map<String, Object> map) {
+        Object data = map.get("data");
+        List<Car> cars = null;
+        if (data instanceof List && !((List<?>) data).isEmpty() && ((List<?>) data).get(0) instanceof Car) {
+            cars = (List<Car>) data;
+        }
+        Object version = map.get("version");
+        return new CarResponse(asString(map.get("id")), asString(map.get("status")), asString(map.get("message")), data, cars,
+                version instanceof Number ? ((Number) version).longValue() : NO_VERSION);
+    }
+
+    boolean isSuccess() {
+        return "success".equals(status);
+    }
+
+    private static String asString(Object value) {
+        return value == null ? null : value.toString();
+    }
+}
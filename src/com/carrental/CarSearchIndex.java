@@ -0,0 +1,384 @@
+// src/com/carrental/CarSearchIndex.java
+package com.carrental;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Text lookups over CarCatalog for search-as-you-type. Car names are kept three ways: sorted
+ * from their first letter and from the start of every later word, for prefix lookups, and
+ * under each three-letter sequence they contain, so a "contains" lookup only checks the names
+ * filed under the query's rarest sequence. Types and vehicle classes, a few dozen labels, are
+ * kept with the number of cars carrying each and simply checked one by one.
+ *
+ * Everything is keyed on lower-case text (Locale.ROOT, as CarCatalog lowers it). Not
+ * thread-safe: CarCatalog maintains it under its owner's lock.
+ */
+final class CarSearchIndex {
+    private static final int GRAM = 3;
+    // Suggestion ranks: the whole text starts with the query, a later word does, or it is inside
+    private static final int WHOLE_PREFIX = 0;
+    private static final int WORD_PREFIX = 1;
+    private static final int INFIX = 2;
+
+    private static final class Term {
+        final String text;  // As first seen, for display
+        final String lower;
+        int cars;
+        int[] rows = new int[1]; // Name terms only: the catalog rows with this name
+        int rowCount;
+
+        Term(String text, String lower) {
+            this.text = text;
+            this.lower = lower;
+        }
+    }
+
+    private final Map<String, Term> names = new HashMap<>();
+    private final Map<String, Term> labels = new HashMap<>(); // Types and vehicle classes
+    private final Map<Long, List<Term>> namesByGram = new HashMap<>();
+    private final PrefixList nameStarts = new PrefixList();
+    private final PrefixList wordStarts = new PrefixList();
+
+    void addName(String name, String lower, int row) {
+        Term term = names.get(lower);
+        if (term == null) {
+            term = new Term(name, lower);
+            names.put(lower, term);
+            nameStarts.insert(term, 0);
+            for (int offset : laterWordStarts(lower)) {
+                wordStarts.insert(term, offset);
+            }
+            for (long gram : grams(lower)) {
+                namesByGram.computeIfAbsent(gram, g -> new ArrayList<>(2)).add(term);
+            }
+        }
+        if (term.rowCount == term.rows.length) {
+            term.rows = Arrays.copyOf(term.rows, term.rowCount * 2);
+        }
+        term.rows[term.rowCount++] = row;
+        term.cars++;
+    }
+
+    void removeName(String lower, int row) {
+        Term term = names.get(lower);
+        if (term == null) {
+            return;
+        }
+        for (int i = 0; i < term.rowCount; i++) {
+            if (term.rows[i] == row) {
+                term.rows[i] = term.rows[--term.rowCount];
+                term.cars--;
+                break;
+            }
+        }
+        if (term.rowCount > 0) {
+            return;
+        }
+        names.remove(lower);
+        nameStarts.delete(term, 0);
+        for (int offset : laterWordStarts(lower)) {
+            wordStarts.delete(term, offset);
+        }
+        for (long gram : grams(lower)) {
+            List<Term> filed = namesByGram.get(gram);
+            if (filed != null) {
+                filed.remove(term);
+                if (filed.isEmpty()) {
+                    namesByGram.remove(gram);
+                }
+            }
+        }
+    }
+
+    void addLabel(String label) {
+        String lower = label.toLowerCase(Locale.ROOT);
+        labels.computeIfAbsent(lower, key -> new Term(label, key)).cars++;
+    }
+
+    void removeLabel(String label) {
+        String lower = label.toLowerCase(Locale.ROOT);
+        Term term = labels.get(lower);
+        if (term != null && --term.cars == 0) {
+            labels.remove(lower);
+        }
+    }
+
+    void clear() {
+        names.clear();
+        labels.clear();
+        namesByGram.clear();
+        nameStarts.clear();
+        wordStarts.clear();
+    }
+
+    /** Sorts what a bulk fill left unsorted, so the first lookup does not pay for it. */
+    void settle() {
+        nameStarts.ensureSorted();
+        wordStarts.ensureSorted();
+    }
+
+    /**
+     * Rows whose name contains lowerText, in catalog order, or null if the text is too short
+     * to look up by sequence and the caller has to check every row.
+     */
+    int[] rowsWithNameContaining(String lowerText) {
+        if (lowerText.length() < GRAM) {
+            return null;
+        }
+        List<Term> rarest = rarestGramNames(lowerText);
+        int[] rows = new int[0];
+        int count = 0;
+        for (Term term : rarest) {
+            if (term.lower.contains(lowerText)) {
+                if (count + term.rowCount > rows.length) {
+                    rows = Arrays.copyOf(rows, Math.max(rows.length * 2, count + term.rowCount));
+                }
+                System.arraycopy(term.rows, 0, rows, count, term.rowCount);
+                count += term.rowCount;
+            }
+        }
+        rows = Arrays.copyOf(rows, count);
+        Arrays.sort(rows);
+        return rows;
+    }
+
+    /**
+     * Up to limit names, types and vehicle classes matching text, best first: those that start
+     * with it, then those with a later word that does, then (for three letters or more) those
+     * that contain it anywhere. Within each, labels carried by more cars come first, then
+     * names in the order of the text they matched at. Prefix lookups cost the same whatever
+     * the size of the catalog; a "contains" lookup checks the names under one sequence.
+     */
+    List<String> suggest(String text, int limit) {
+        String lower = text.trim().toLowerCase(Locale.ROOT);
+        if (lower.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        Map<String, Suggestion> found = new LinkedHashMap<>(); // One entry per text, at its best rank
+        for (Term label : labels.values()) {
+            int rank = rank(label.lower, lower);
+            if (rank >= 0) {
+                offer(found, label, rank);
+            }
+        }
+        for (Term term : nameStarts.startingWith(lower, limit)) {
+            offer(found, term, WHOLE_PREFIX);
+        }
+        for (Term term : wordStarts.startingWith(lower, limit)) {
+            offer(found, term, WORD_PREFIX);
+        }
+        if (found.size() < limit && lower.length() >= GRAM) {
+            int infixes = 0;
+            for (Term term : rarestGramNames(lower)) {
+                if (infixes == limit) {
+                    break;
+                }
+                if (!found.containsKey(term.lower) && term.lower.contains(lower)) {
+                    offer(found, term, INFIX);
+                    infixes++;
+                }
+            }
+        }
+
+        List<Suggestion> ranked = new ArrayList<>(found.values());
+        ranked.sort(Comparator.comparingInt((Suggestion s) -> s.rank) // Stable: ties keep the order found
+                .thenComparing(s -> -s.term.cars));
+        List<String> result = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            result.add(ranked.get(i).term.text);
+        }
+        return result;
+    }
+
+    private static final class Suggestion {
+        final Term term;
+        final int rank;
+
+        Suggestion(Term term, int rank) {
+            this.term = term;
+            this.rank = rank;
+        }
+    }
+
+    private static void offer(Map<String, Suggestion> found, Term term, int rank) {
+        Suggestion existing = found.get(term.lower);
+        if (existing == null || rank < existing.rank || (rank == existing.rank && term.cars > existing.term.cars)) {
+            found.put(term.lower, new Suggestion(term, rank));
+        }
+    }
+
+    /** How lowerText matches query, or -1 if it does not contain it. */
+    private static int rank(String lowerText, String query) {
+        if (lowerText.startsWith(query)) {
+            return WHOLE_PREFIX;
+        }
+        for (int offset : laterWordStarts(lowerText)) {
+            if (lowerText.startsWith(query, offset)) {
+                return WORD_PREFIX;
+            }
+        }
+        return lowerText.contains(query) ? INFIX : -1;
+    }
+
+    /** The names filed under the query's least common sequence; a superset of those containing it. */
+    private List<Term> rarestGramNames(String lowerText) {
+        List<Term> rarest = null;
+        for (long gram : grams(lowerText)) {
+            List<Term> filed = namesByGram.get(gram);
+            if (filed == null) {
+                return new ArrayList<>(); // Some sequence of the query is in no name
+            }
+            if (rarest == null || filed.size() < rarest.size()) {
+                rarest = filed;
+            }
+        }
+        return rarest == null ? new ArrayList<>() : rarest;
+    }
+
+    /** The distinct three-letter sequences of the text, each packed into a long. */
+    private static long[] grams(String lower) {
+        int count = Math.max(0, lower.length() - GRAM + 1);
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) lower.charAt(i) << 32) | ((long) lower.charAt(i + 1) << 16) | lower.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray(); // "9999" is filed under "999" once
+    }
+
+    /** Where each word after the first begins: a letter or digit following anything else. */
+    private static int[] laterWordStarts(String lower) {
+        int[] starts = new int[0];
+        for (int i = 1; i < lower.length(); i++) {
+            if (Character.isLetterOrDigit(lower.charAt(i)) && !Character.isLetterOrDigit(lower.charAt(i - 1))) {
+                starts = Arrays.copyOf(starts, starts.length + 1);
+                starts[starts.length - 1] = i;
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * (term, offset) entries ordered by the term's text from that offset, so every entry whose
+     * text there starts with a prefix is one contiguous stretch found by binary search. Kept
+     * sorted with one arraycopy per change once in use; a fill after clear() appends and sorts
+     * once when first read, as CarIndex's range index does.
+     */
+    private static final class PrefixList {
+        private Term[] terms = new Term[64];
+        private int[] offsets = new int[64];
+        private int size;
+        private boolean sorted;
+
+        void insert(Term term, int offset) {
+            if (size == terms.length) {
+                terms = Arrays.copyOf(terms, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            int at = sorted ? position(term, offset) : size;
+            System.arraycopy(terms, at, terms, at + 1, size - at);
+            System.arraycopy(offsets, at, offsets, at + 1, size - at);
+            terms[at] = term;
+            offsets[at] = offset;
+            size++;
+        }
+
+        void delete(Term term, int offset) {
+            ensureSorted();
+            int at = position(term, offset);
+            if (at < size && terms[at] == term && offsets[at] == offset) {
+                System.arraycopy(terms, at + 1, terms, at, size - at - 1);
+                System.arraycopy(offsets, at + 1, offsets, at, size - at - 1);
+                terms[--size] = null;
+            }
+        }
+
+        void clear() {
+            Arrays.fill(terms, 0, size, null);
+            size = 0;
+            sorted = false;
+        }
+
+        /** Up to limit distinct terms whose text from the entry's offset starts with prefix. */
+        List<Term> startingWith(String prefix, int limit) {
+            ensureSorted();
+            int low = 0, high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareFrom(terms[mid].lower, offsets[mid], prefix, 0) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            List<Term> result = new ArrayList<>(limit);
+            for (int i = low; i < size && result.size() < limit && terms[i].lower.startsWith(prefix, offsets[i]); i++) {
+                if (!result.contains(terms[i])) {
+                    result.add(terms[i]);
+                }
+            }
+            return result;
+        }
+
+        void ensureSorted() {
+            if (sorted) {
+                return;
+            }
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> compare(terms[a], offsets[a], terms[b], offsets[b]));
+            Term[] sortedTerms = new Term[terms.length];
+            int[] sortedOffsets = new int[offsets.length];
+            for (int i = 0; i < size; i++) {
+                sortedTerms[i] = terms[order[i]];
+                sortedOffsets[i] = offsets[order[i]];
+            }
+            terms = sortedTerms;
+            offsets = sortedOffsets;
+            sorted = true;
+        }
+
+        private int position(Term term, int offset) {
+            int low = 0, high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(terms[mid], offsets[mid], term, offset) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /** By text from the offset, then by whole text and offset so each entry has one place. */
+        private static int compare(Term a, int aOffset, Term b, int bOffset) {
+            int byText = compareFrom(a.lower, aOffset, b.lower, bOffset);
+            if (byText != 0) {
+                return byText;
+            }
+            int byTerm = a.lower.compareTo(b.lower);
+            return byTerm != 0 ? byTerm : Integer.compare(aOffset, bOffset);
+        }
+
+        private static int compareFrom(String a, int aOffset, String b, int bOffset) {
+            int aLength = a.length() - aOffset, bLength = b.length() - bOffset;
+            int common = Math.min(aLength, bLength);
+            for (int i = 0; i < common; i++) {
+                char x = a.charAt(aOffset + i), y = b.charAt(bOffset + i);
+                if (x != y) {
+                    return x - y;
+                }
+            }
+            return aLength - bLength;
+        }
+    }
+}
@@ -6,24 +6,12 @@ package com.carrental;
 
 import com.carrental.model.Car;
 
-import com.google.gson.Gson;
-
-import com.google.gson.GsonBuilder;
-
-import com.google.gson.reflect.TypeToken;
-
 
 
 import java.io.File;
 
-import java.io.FileReader;
-
-import java.io.FileWriter;
-
 import java.io.IOException;
 
-import java.io.BufferedReader;
-
 import java.util.ArrayList;
 
 import java.util.HashMap;
@@ -34,23 +22,27 @@ import java.util.Map;
 
 import java.util.UUID;
 
-import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
-import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
 
+import java.util.concurrent.CompletionException;
 
+import java.util.concurrent.ConcurrentHashMap;
 
-public class CarService {
+import java.util.concurrent.ExecutionException;
+
+import java.util.concurrent.TimeUnit;
 
-    private static Process cppProcess;
+import java.util.concurrent.atomic.LongAdder;
 
-    private static Gson gson = new GsonBuilder().setPrettyPrinting().create();
 
 
+public class CarService {
 
-    private static final String COMMAND_FILE = "command.json";
+    private static final Log log = Log.of(CarService.class);
 
-    private static final String RESULT_FILE = "result.json";
+    private static CarBackend backend;
 
 
 
@@ -60,6 +52,66 @@ public class CarService {
 
 
 
+    // "auto" (default) runs the C++ executable when it exists and the in-process catalog
+
+    // otherwise; "process" and "inprocess" force one or the other.
+
+    private static final String BACKEND_MODE = System.getProperty("carrental.backend", "auto");
+
+    private static final String BACKEND_EXECUTABLE = System.getProperty("carrental.backend.executable", CPP_EXECUTABLE_PATH);
+
+    // Working directory of the C++ process, and where the in-process catalog keeps its data.
+
+    private static final String BACKEND_DIRECTORY = System.getProperty("carrental.backend.dir", CPP_WORKING_DIRECTORY);
+
+    // "stdio" (default) keeps the backend's pipes open and exchanges framed messages;
+
+    // "shm" uses a memory-mapped ring file (falls back to stdio); "file" forces the
+
+    // command.json/result.json exchange.
+
+    private static final String IPC_MODE = System.getProperty("carrental.ipc", "stdio");
+
+    // "compact" (default) asks the backend for the binary encoding during the handshake;
+
+    // "json" keeps every framed message human-readable for debugging.
+
+    private static final String WIRE_ENCODING = System.getProperty("carrental.wire", "compact");
+
+    // Keep a second, pre-started process on the stdio channel to take over if the first dies.
+
+    private static final boolean WARM_STANDBY = Boolean.getBoolean("carrental.backend.standby");
+
+    // Default timeout per action when the caller does not give one, learned from answer times.
+
+    private static final AdaptiveTimeouts timeouts = new AdaptiveTimeouts();
+
+
+
+    // Car-list reads currently waiting on the backend, keyed by action and arguments. An
+
+    // identical read issued meanwhile joins the pending one instead of sending its own.
+
+    private static final Map<String, CompletableFuture<List<Car>>> inFlightReads = new ConcurrentHashMap<>();
+
+    // Results of recent car-list reads, valid while the backend's catalog version is unchanged.
+
+    private static final QueryCache queryCache = new QueryCache(Integer.getInteger("carrental.cache.entries", 64));
+
+    // Synced copy of the whole catalog; while it is at the newest version seen, car-list reads
+
+    // are evaluated over it by CarQueryEngine without a round trip.
+
+    private static volatile CatalogSync localCatalog;
+
+    private static final LongAdder localReads = new LongAdder();
+
+    // Backend "catalog changed" notices, turned into events for onCarChanged listeners.
+
+    private static final CarChangeFeed changeFeed = new CarChangeFeed();
+
+
+
     static {
 
 // Initialize moved to LoginPage's main method
@@ -72,9 +124,9 @@ public class CarService {
 
     public static void initialize() {
 
-        if (cppProcess != null && cppProcess.isAlive()) {
+        if (backend != null) {
 
-            System.out.println("C++ Car Manager process is already running.");
+            log.info("Car backend is already running (" + backend.name() + ").");
 
             return;
 
@@ -82,141 +134,189 @@ public class CarService {
 
 
 
-        File cppWorkingDir = new File(CPP_WORKING_DIRECTORY);
+        CarServiceMetrics.INSTANCE.register();
 
-        if (!cppWorkingDir.exists()) {
+        File executable = new File(BACKEND_EXECUTABLE);
 
-            System.err.println("Error: C++ working directory not found: " + cppWorkingDir.getAbsolutePath());
+        File workingDir = new File(BACKEND_DIRECTORY);
 
-            System.exit(1);
+        if ("inprocess".equals(BACKEND_MODE) || ("auto".equals(BACKEND_MODE) && !executable.isFile())) {
+
+            backend = new InProcessCarBackend(inProcessDataDirectory(workingDir));
+
+            backend.onCatalogChanged(changeFeed::catalogChanged);
+
+            return;
 
         }
 
 
 
-        try {
+        BackendSupervisor supervisor = new BackendSupervisor(() -> {
 
-            ProcessBuilder pb = new ProcessBuilder(CPP_EXECUTABLE_PATH);
+            ExternalProcessBackend external = new ExternalProcessBackend(executable, workingDir);
 
-            pb.directory(cppWorkingDir);
+            external.start(IPC_MODE, WIRE_ENCODING);
 
-            pb.inheritIO();
+            return external;
 
+        }, !WARM_STANDBY ? null : () -> {
 
+            ExternalProcessBackend external = new ExternalProcessBackend(executable, workingDir);
 
-            cppProcess = pb.start();
+            external.startStdioOnly(WIRE_ENCODING);
 
-            System.out.println("C++ Car Manager process started successfully.");
+            return external;
 
+        });
 
+        if (supervisor.start()) {
 
-// Ensure command and result files are empty/valid JSON for the first run
+            backend = supervisor;
 
-            writeJsonToFile(COMMAND_FILE, "{}");
+        } else if ("auto".equals(BACKEND_MODE)) {
 
-            writeJsonToFile(RESULT_FILE, "{}");
+            supervisor.close();
 
+            log.warn("Falling back to the in-process car catalog.");
 
+            backend = new InProcessCarBackend(inProcessDataDirectory(workingDir));
 
-        } catch (IOException e) {
+        } else {
 
-            System.err.println("Failed to start C++ Car Manager process: " + e.getMessage());
+            // Keep the supervisor: it retries in the background and commands fail fast meanwhile.
 
-            e.printStackTrace();
+            log.warn("C++ Car Manager is not available yet; retrying in the background.");
 
-            System.exit(1);
+            backend = supervisor;
 
         }
 
+        backend.onCatalogChanged(changeFeed::catalogChanged);
+
     }
 
 
 
-    public static void shutdown() {
+    /** The configured directory if it exists, else the repository's src/cpp, else the current directory. */
 
-        if (cppProcess != null && cppProcess.isAlive()) {
+    private static File inProcessDataDirectory(File configured) {
 
-            System.out.println("Terminating C++ Car Manager process...");
+        if (configured.isDirectory()) {
 
-            cppProcess.destroy(); // Request graceful termination
+            return configured;
 
-            try {
+        }
 
-                if (!cppProcess.waitFor(5, TimeUnit.SECONDS)) { // Wait up to 5 seconds
+        File repositoryData = new File("src" + File.separator + "cpp");
 
-                    System.err.println("C++ process did not terminate gracefully, forcing shutdown.");
+        return repositoryData.isDirectory() ? repositoryData : new File(".");
 
-                    cppProcess.destroyForcibly(); // Force kill if not terminated
+    }
 
-                }
 
-            } catch (InterruptedException e) {
 
-                Thread.currentThread().interrupt(); // Restore interrupted status
+    /** Lets car-list reads be answered from this synced snapshot while it is current. */
 
-                System.err.println("Interrupted while waiting for C++ process to terminate.");
+    static void useLocalCatalog(CatalogSync catalog) {
 
-                cppProcess.destroyForcibly();
+        localCatalog = catalog;
 
-            } finally {
+        changeFeed.follow(catalog);
 
-                cppProcess = null; // Clear the process reference
+    }
 
-            }
 
-        }
 
-        System.out.println("C++ Car Manager process shut down.");
+    /**
 
-    }
+     * Subscribes to changes in the car catalog, whoever makes them: this screen, another one,
 
+     * or another terminal saving to the same car data. The backend pushes a notice when its
 
+     * catalog changes, only the changed cars are fetched, and the listener gets them on the
 
-    private static void writeJsonToFile(String filename, String jsonContent) throws IOException {
+     * Event Dispatch Thread; changes in quick succession arrive as one event. The file
 
-        try (FileWriter file = new FileWriter(new File(CPP_WORKING_DIRECTORY, filename))) { // Use working directory
+     * exchange (carrental.ipc=file) has no way to push, so there changes are noticed from the
 
-            file.write(jsonContent);
+     * version on the next response instead.
 
-            file.flush();
+     *
 
-        }
+     * @return call to unsubscribe, e.g. when the window closes
+
+     */
+
+    public static Runnable onCarChanged(CarChangeListener listener) {
+
+        return changeFeed.subscribe(listener);
 
     }
 
 
 
-    private static String readJsonFromFile(String filename) throws IOException {
+    public static void shutdown() {
+
+        changeFeed.close();
+
+        log.info(queryCache + "; " + localReads.sum() + " reads answered from the local catalog; " + timeouts);
+
+        log.info("Command latencies:\n" + CarServiceMetrics.INSTANCE.getSummary());
 
-        File file = new File(CPP_WORKING_DIRECTORY, filename); // Use working directory
+        if (backend != null) {
 
-        if (!file.exists() || file.length() == 0) {
+            backend.close();
 
-            return "{}"; // Return empty JSON object if file doesn't exist or is empty
+            backend = null;
 
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+        log.info("Car backend shut down.");
 
-            StringBuilder content = new StringBuilder();
+        Log.flush(); // Shutdown hooks run in no set order; don't leave the last lines to the writer thread
 
-            String line;
+    }
 
-            while ((line = reader.readLine()) != null) {
 
-                content.append(line);
 
-            }
+    /** The timeout a command of this action gets when the caller does not pass one. */
 
-            return content.toString();
+    private static long defaultTimeoutMillis(String action) {
 
-        }
+        return timeouts.timeoutMillis(action);
 
     }
 
 
 
-    private static String sendCommand(Map<String, Object> commandMap) throws IOException {
+    private static CompletableFuture<CarResponse> sendCommandAsync(Map<String, Object> commandMap) {
+
+        return sendCommandAsync(commandMap, defaultTimeoutMillis(String.valueOf(commandMap.get("action"))));
+
+    }
+
+
+
+    /**
+
+     * Sends a command without blocking. Every command carries its own UUID, which the backend
+
+     * echoes back, so any number of these can be outstanding at once. The future completes with
+
+     * the decoded response, with null on timeout, or exceptionally with an IOException.
+
+     */
+
+    private static CompletableFuture<CarResponse> sendCommandAsync(Map<String, Object> commandMap, long timeoutMillis) {
+
+        CarBackend target = backend;
+
+        if (target == null) {
+
+            return CompletableFuture.failedFuture(new IOException("Car backend is not running."));
+
+        }
 
         String commandId = UUID.randomUUID().toString();
 
@@ -232,151 +332,279 @@ public class CarService {
 
         }
 
+        String action = String.valueOf(commandMap.get("action"));
 
+        long started = System.nanoTime();
 
-        String jsonCommand = gson.toJson(commandMap);
+        return target.execute(commandMap, timeoutMillis).whenComplete((response, error) -> {
 
+            long elapsed = System.nanoTime() - started;
 
+            CarServiceMetrics.INSTANCE.recordEndToEnd(action, elapsed);
 
-// Clear result file before sending new command to prevent reading stale data
+            if (error != null && !isMalformedResponse(error)) {
 
-        writeJsonToFile(RESULT_FILE, "{}");
+                CarServiceMetrics.INSTANCE.recordFailure(action); // Malformed ones are counted where they are decoded
 
+            } else {
 
+                timeouts.record(action, elapsed); // A timeout counts at its full wait
 
-        writeJsonToFile(COMMAND_FILE, jsonCommand);
+                if (response == null) {
 
-        System.out.println("Java sent command (ID: " + commandId + "): " + jsonCommand);
+                    CarServiceMetrics.INSTANCE.recordTimeout(action);
 
+                }
 
+            }
 
-        long startTime = System.currentTimeMillis();
+        }).thenApply(response -> {
 
-        long timeoutMillis = 10000; // 10-second timeout
+            if (response != null) {
 
+                queryCache.observeVersion(response.version);
 
+                if (response.version != CarResponse.NO_VERSION) {
 
-        while (System.currentTimeMillis() - startTime < timeoutMillis) {
+                    changeFeed.catalogChanged(response.version); // Ignored unless newer than the synced catalog
 
-            String resultContent = readJsonFromFile(RESULT_FILE);
+                }
 
-            if (!resultContent.isEmpty() && !resultContent.equals("{}")) {
+            }
 
-                try {
+            return response;
 
-// It's safer to check for the ID AFTER parsing.
+        });
 
-// If JSON is malformed, it won't parse, so the try-catch is correct.
+    }
 
-                    Map<String, Object> responseMap = gson.fromJson(resultContent, new TypeToken<Map<String, Object>>(){}.getType());
 
-                    if (responseMap != null && commandId.equals(responseMap.get("id"))) {
 
-                        System.out.println("Java received response (ID: " + commandId + "): " + resultContent);
+    private static boolean isMalformedResponse(Throwable error) {
 
-// Clear command file after successful response to signal C++
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
 
-                        writeJsonToFile(COMMAND_FILE, "{}");
+        return cause instanceof ExternalProcessBackend.MalformedResponseException;
 
-                        return resultContent;
+    }
 
-                    }
 
-                } catch (Exception e) {
 
-                    System.err.println("Warning: Incomplete or invalid JSON in result.json. Retrying... " + e.getMessage());
+    /** Sends a command that changes the catalog; cached and in-flight reads are not reused across it. */
 
-// Do not break here, continue waiting/retrying
+    private static CompletableFuture<CarResponse> sendWriteAsync(Map<String, Object> commandMap, long timeoutMillis) {
 
-                }
+        queryCache.writeStarted();
+
+        forgetInFlightReads();
+
+        return sendCommandAsync(commandMap, timeoutMillis).whenComplete((response, error) -> {
+
+            queryCache.writeFinished();
+
+            if (response != null && response.isSuccess() && response.version == CarResponse.NO_VERSION) {
+
+                changeFeed.catalogChanged(CarResponse.NO_VERSION); // A backend without versions (CarManager.exe): resync to pick up the write
 
             }
 
-            try {
+        });
+
+    }
+
+
+
+    /** Blocks on an async result, unwrapping the IOException a failed command completes with. */
 
-                TimeUnit.MILLISECONDS.sleep(100); // Poll every 100ms
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
 
-            } catch (InterruptedException e) {
+        try {
+
+            return future.get();
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+
+            throw new IOException("Interrupted while waiting for C++ response.", e);
+
+        } catch (ExecutionException e) {
+
+            Throwable cause = e.getCause();
 
-                Thread.currentThread().interrupt();
+            if (cause instanceof IOException) {
 
-                throw new IOException("Interrupted while waiting for C++ response.", e);
+                throw (IOException) cause;
 
             }
 
+            throw new IOException(cause.getMessage(), cause);
+
+        }
+
+    }
+
+
+
+    /**
+
+     * A car-list read: answered from the query cache if the catalog has not changed since the
+
+     * same query was last answered, otherwise sent, or joined if an identical read is already in flight.
+
+     */
+
+    private static CompletableFuture<List<Car>> cachedRead(String key, long timeoutMillis, Supplier<CompletableFuture<CarResponse>> read) {
+
+        List<Car> cached = queryCache.get(key);
+
+        if (cached != null) {
+
+            return CompletableFuture.completedFuture(new ArrayList<>(cached));
+
         }
 
+        return coalesceRead(key, timeoutMillis, () -> read.get().thenApply(response -> {
+
+            List<Car> cars = parseResponseData(response);
 
+            if (response != null && response.isSuccess()) {
 
-        System.err.println("Timeout: No response received from C++ for command ID: " + commandId);
+                queryCache.put(key, response.version, cars);
 
-        writeJsonToFile(COMMAND_FILE, "{}"); // Clear command file even on timeout
+            }
+
+            return cars;
 
-        return null;
+        }));
 
     }
 
 
 
-    @SuppressWarnings("unchecked")
+    /**
 
-    private static <T> List<T> parseResponseData(String responseJson, Type typeOfList) {
+     * A car-list read evaluated over the local catalog snapshot if it is at the newest catalog
 
-        if (responseJson == null) return new ArrayList<>();
+     * version seen and none of our writes is in flight, otherwise a cachedRead from the backend.
 
-        Map<String, Object> responseMap = gson.fromJson(responseJson, new TypeToken<Map<String, Object>>(){}.getType());
+     */
 
+    private static CompletableFuture<List<Car>> localRead(String key, long timeoutMillis, CatalogSync.Query query,
 
+                                                          Supplier<CompletableFuture<CarResponse>> read) {
 
-        if ("success".equals(responseMap.get("status"))) {
+        CatalogSync catalog = localCatalog;
 
-            Object data = responseMap.get("data");
+        List<Car> local = catalog == null ? null : catalog.queryIfCurrent(queryCache.settledVersion(), query);
 
-            if (data == null) {
+        if (local != null) {
 
-                return new ArrayList<>();
+            localReads.increment();
 
-            }
+            return CompletableFuture.completedFuture(local);
 
+        }
+
+        return cachedRead(key, timeoutMillis, read);
 
+    }
 
-            List<T> parsedList = gson.fromJson(gson.toJson(data), typeOfList);
 
 
+    /**
 
-// --- IMPORTANT FIX: Correct image paths for Car objects ---
+     * Single-flight for car-list reads: the first caller for a key sends the command, and
 
-            if (typeOfList.equals(new TypeToken<List<Car>>() {}.getType())) {
+     * everyone asking for the same key before it answers shares that one response. Each caller
 
-                List<Car> cars = (List<Car>) parsedList; // Cast to List<Car>
+     * still gets its own list; the Car objects in it are shared. A caller that joins keeps its
 
-                for (Car car : cars) {
+     * own deadline and gets an empty list, as on a timeout, if the shared read outlasts it.
 
-                    String currentPath = car.getImagePath();
+     */
 
-                    if (currentPath != null && currentPath.startsWith("src/Images/")) {
+    private static CompletableFuture<List<Car>> coalesceRead(String key, long timeoutMillis, Supplier<CompletableFuture<List<Car>>> read) {
 
-// Replace "src/Images/" with "/Images/" for classpath loading
+        CompletableFuture<List<Car>> mine = new CompletableFuture<>();
 
-                        car.setImagePath(currentPath.replace("src/Images/", "/Images/"));
+        CompletableFuture<List<Car>> shared = inFlightReads.putIfAbsent(key, mine);
 
-                    }
+        if (shared != null) {
 
-                }
+            return shared.<List<Car>>thenApply(ArrayList::new).completeOnTimeout(new ArrayList<>(), timeoutMillis, TimeUnit.MILLISECONDS);
+
+        }
+
+        read.get().whenComplete((cars, error) -> {
 
-                return (List<T>) cars; // Return the list with corrected paths
+            inFlightReads.remove(key, mine); // Later callers send a fresh read
+
+            if (error != null) {
+
+                mine.completeExceptionally(error);
+
+            } else {
+
+                mine.complete(cars);
 
             }
 
-// --- END IMPORTANT FIX ---
+        });
+
+        return mine.thenApply(ArrayList::new);
+
+    }
+
+
+
+    /** Called before every write so no read issued after it joins a read that started before it. */
 
+    private static void forgetInFlightReads() {
+
+        inFlightReads.clear();
+
+    }
 
 
-            return parsedList; // Return as is for other types of lists
+
+    private static String readKey(String action, Object... arguments) {
+
+        StringBuilder key = new StringBuilder(action);
+
+        for (Object argument : arguments) {
+
+            key.append('\u0000').append(argument);
+
+        }
+
+        return key.toString();
+
+    }
+
+
+
+    /**
+
+     * The codecs decode car lists in the same pass that reads the envelope, with image paths
+
+     * already rewritten for classpath loading, so all that is left is the status check.
+
+     */
+
+    private static List<Car> parseResponseData(CarResponse response) {
+
+        if (response == null) return new ArrayList<>();
+
+
+
+        if (response.isSuccess()) {
+
+            return response.cars != null ? response.cars : new ArrayList<>();
 
         } else {
 
-            System.err.println("C++ Error response: " + responseMap.get("message"));
+            log.error("C++ Error response: " + response.message);
 
             return new ArrayList<>();
 
@@ -386,19 +614,17 @@ public class CarService {
 
 
 
-    private static boolean checkStatus(String responseJson) {
+    private static boolean checkStatus(CarResponse response) {
 
-        if (responseJson == null) return false;
+        if (response == null) return false;
 
-        Map<String, Object> responseMap = gson.fromJson(responseJson, new TypeToken<Map<String, Object>>(){}.getType());
-
-        if ("success".equals(responseMap.get("status"))) {
+        if (response.isSuccess()) {
 
             return true;
 
         } else {
 
-            System.err.println("C++ Operation failed: " + responseMap.get("message"));
+            log.error("C++ Operation failed: " + response.message);
 
             return false;
 
@@ -410,27 +636,105 @@ public class CarService {
 
 // --- Public methods for Car operations ---
 
+// Each operation has a blocking form and an *Async form. The async forms complete with the
+
+// same values the blocking ones return, or exceptionally if the backend channel failed.
+
+// Each *Async form also takes a timeout in milliseconds: past it the result is what a
+
+// backend that never answered gives (an empty list, false, failed batch results), and the
+
+// backend is told to drop the command if it has not started it yet. Without one, the action's
+
+// adaptive default applies.
+
 
 
     public static List<Car> getAllCars() {
 
+        try {
+
+            return await(getAllCarsAsync());
+
+        } catch (IOException e) {
+
+            log.error("Error getting all cars: " + e.getMessage());
+
+            return new ArrayList<>();
+
+        }
+
+    }
+
+
+
+    public static CompletableFuture<List<Car>> getAllCarsAsync() {
+
+        return getAllCarsAsync(defaultTimeoutMillis("GET_ALL_CARS"));
+
+    }
+
+
+
+    public static CompletableFuture<List<Car>> getAllCarsAsync(long timeoutMillis) {
+
+        return localRead(readKey("GET_ALL_CARS"), timeoutMillis, (cars, columns) -> new ArrayList<>(cars), () -> {
+
+            Map<String, Object> command = new HashMap<>();
+
+            command.put("action", "GET_ALL_CARS");
+
+            return sendCommandAsync(command, timeoutMillis);
+
+        });
+
+    }
+
+
+
+    /**
+
+     * The cars added or updated and the names deleted since the given catalog version, for
+
+     * CatalogSync to apply. Returns null if the backend did not answer.
+
+     */
+
+    static CarResponse getChangesSince(long sequence) {
+
         Map<String, Object> command = new HashMap<>();
 
-        command.put("action", "GET_ALL_CARS");
+        command.put("action", "GET_CHANGES_SINCE");
+
+        command.put("since", sequence);
 
         try {
 
-            String response = sendCommand(command);
+            return await(sendCommandAsync(command));
+
+        } catch (IOException e) {
+
+            log.error("Error getting catalog changes: " + e.getMessage());
+
+            return null;
+
+        }
+
+    }
+
+
 
-            Type carListType = new TypeToken<List<Car>>() {}.getType();
+    public static boolean addCar(Car car) {
+
+        try {
 
-            return parseResponseData(response, carListType);
+            return await(addCarAsync(car));
 
         } catch (IOException e) {
 
-            System.err.println("Error getting all cars: " + e.getMessage());
+            log.error("Error adding car: " + e.getMessage());
 
-            return new ArrayList<>();
+            return false;
 
         }
 
@@ -438,7 +742,15 @@ public class CarService {
 
 
 
-    public static boolean addCar(Car car) {
+    public static CompletableFuture<Boolean> addCarAsync(Car car) {
+
+        return addCarAsync(car, defaultTimeoutMillis("ADD_CAR"));
+
+    }
+
+
+
+    public static CompletableFuture<Boolean> addCarAsync(Car car, long timeoutMillis) {
 
         Map<String, Object> command = new HashMap<>();
 
@@ -450,17 +762,23 @@ public class CarService {
 
 // For now, C++ is the source of truth, so we only convert when receiving.
 
-        command.put("car", gson.fromJson(gson.toJson(car), new TypeToken<Map<String, Object>>(){}.getType()));
+        command.put("car", car); // Each codec serializes the Car itself
 
-        try {
+        return sendWriteAsync(command, timeoutMillis).thenApply(CarService::checkStatus);
+
+    }
 
-            String response = sendCommand(command);
 
-            return checkStatus(response);
+
+    public static boolean updateCar(Car car) {
+
+        try {
+
+            return await(updateCarAsync(car));
 
         } catch (IOException e) {
 
-            System.err.println("Error adding car: " + e.getMessage());
+            log.error("Error updating car: " + e.getMessage());
 
             return false;
 
@@ -470,7 +788,15 @@ public class CarService {
 
 
 
-    public static boolean updateCar(Car car) {
+    public static CompletableFuture<Boolean> updateCarAsync(Car car) {
+
+        return updateCarAsync(car, defaultTimeoutMillis("UPDATE_CAR"));
+
+    }
+
+
+
+    public static CompletableFuture<Boolean> updateCarAsync(Car car, long timeoutMillis) {
 
         Map<String, Object> command = new HashMap<>();
 
@@ -478,17 +804,23 @@ public class CarService {
 
 // Same note as addCar regarding path conversion before sending
 
-        command.put("car", gson.fromJson(gson.toJson(car), new TypeToken<Map<String, Object>>(){}.getType()));
+        command.put("car", car); // Each codec serializes the Car itself
 
-        try {
+        return sendWriteAsync(command, timeoutMillis).thenApply(CarService::checkStatus);
 
-            String response = sendCommand(command);
+    }
+
+
+
+    public static boolean deleteCar(String carName) {
+
+        try {
 
-            return checkStatus(response);
+            return await(deleteCarAsync(carName));
 
         } catch (IOException e) {
 
-            System.err.println("Error updating car: " + e.getMessage());
+            log.error("Error deleting car: " + e.getMessage());
 
             return false;
 
@@ -498,7 +830,15 @@ public class CarService {
 
 
 
-    public static boolean deleteCar(String carName) {
+    public static CompletableFuture<Boolean> deleteCarAsync(String carName) {
+
+        return deleteCarAsync(carName, defaultTimeoutMillis("DELETE_CAR"));
+
+    }
+
+
+
+    public static CompletableFuture<Boolean> deleteCarAsync(String carName, long timeoutMillis) {
 
         Map<String, Object> command = new HashMap<>();
 
@@ -506,17 +846,33 @@ public class CarService {
 
         command.put("carName", carName);
 
-        try {
+        return sendWriteAsync(command, timeoutMillis).thenApply(CarService::checkStatus);
+
+    }
+
+
+
+    /**
 
-            String response = sendCommand(command);
+     * Sends every command in one BATCH exchange; the backend applies them in order and saves
 
-            return checkStatus(response);
+     * its data file once. Returns one result per command, in the same order. If the exchange
+
+     * itself fails, every result carries the failure.
+
+     */
+
+    public static List<CarCommand.Result> executeBatch(List<CarCommand> commands) {
+
+        try {
+
+            return await(executeBatchAsync(commands));
 
         } catch (IOException e) {
 
-            System.err.println("Error deleting car: " + e.getMessage());
+            log.error("Error executing batch: " + e.getMessage());
 
-            return false;
+            return failedBatch(commands, e.getMessage());
 
         }
 
@@ -524,27 +880,113 @@ public class CarService {
 
 
 
-    public static List<Car> searchCars(String query, String searchField) {
+    public static CompletableFuture<List<CarCommand.Result>> executeBatchAsync(List<CarCommand> commands) {
+
+        return executeBatchAsync(commands, defaultTimeoutMillis("BATCH"));
+
+    }
+
+
+
+    public static CompletableFuture<List<CarCommand.Result>> executeBatchAsync(List<CarCommand> commands, long timeoutMillis) {
+
+        if (commands.isEmpty()) {
+
+            return CompletableFuture.completedFuture(new ArrayList<>());
+
+        }
+
+        List<Map<String, Object>> items = new ArrayList<>(commands.size());
+
+        for (CarCommand carCommand : commands) {
+
+            items.add(carCommand.toCommandMap());
+
+        }
 
         Map<String, Object> command = new HashMap<>();
 
-        command.put("action", "SEARCH_CARS");
+        command.put("action", "BATCH");
 
-        command.put("query", query);
+        command.put("commands", items);
 
-        command.put("searchField", searchField);
+        return sendWriteAsync(command, timeoutMillis).thenApply(response -> parseBatchResults(commands, response));
 
-        try {
+    }
+
+
+
+    private static List<CarCommand.Result> parseBatchResults(List<CarCommand> commands, CarResponse response) {
+
+        if (response == null) {
+
+            return failedBatch(commands, "No response from C++ backend.");
+
+        }
+
+        if (!response.isSuccess() || !(response.data instanceof List)) {
+
+            log.error("C++ Batch failed: " + response.message);
+
+            return failedBatch(commands, response.message);
+
+        }
+
+        List<?> items = (List<?>) response.data;
 
-            String response = sendCommand(command);
+        List<CarCommand.Result> results = new ArrayList<>(commands.size());
 
-            Type carListType = new TypeToken<List<Car>>() {}.getType();
+        for (int i = 0; i < commands.size(); i++) {
 
-            return parseResponseData(response, carListType); // Path correction happens here
+            Object item = i < items.size() ? items.get(i) : null;
+
+            if (item instanceof Map) {
+
+                Map<?, ?> result = (Map<?, ?>) item;
+
+                Object message = result.get("message");
+
+                results.add(new CarCommand.Result(commands.get(i), "success".equals(result.get("status")), message == null ? null : message.toString()));
+
+            } else {
+
+                results.add(new CarCommand.Result(commands.get(i), false, "No result returned for this command."));
+
+            }
+
+        }
+
+        return results;
+
+    }
+
+
+
+    private static List<CarCommand.Result> failedBatch(List<CarCommand> commands, String message) {
+
+        List<CarCommand.Result> results = new ArrayList<>(commands.size());
+
+        for (CarCommand command : commands) {
+
+            results.add(new CarCommand.Result(command, false, message));
+
+        }
+
+        return results;
+
+    }
+
+
+
+    public static List<Car> searchCars(String query, String searchField) {
+
+        try {
+
+            return await(searchCarsAsync(query, searchField));
 
         } catch (IOException e) {
 
-            System.err.println("Error searching cars: " + e.getMessage());
+            log.error("Error searching cars: " + e.getMessage());
 
             return new ArrayList<>();
 
@@ -554,31 +996,53 @@ public class CarService {
 
 
 
-    public static List<Car> filterCars(String typeFilter, double minRating, double maxPrice, boolean availableOnly) {
+    public static CompletableFuture<List<Car>> searchCarsAsync(String query, String searchField) {
 
-        Map<String, Object> command = new HashMap<>();
+        return searchCarsAsync(query, searchField, defaultTimeoutMillis("SEARCH_CARS"));
 
-        command.put("action", "FILTER_CARS");
+    }
 
-        command.put("typeFilter", typeFilter);
 
-        command.put("minRating", minRating);
 
-        command.put("maxPrice", maxPrice);
+    public static CompletableFuture<List<Car>> searchCarsAsync(String query, String searchField, long timeoutMillis) {
 
-        command.put("availableOnly", availableOnly);
+        return localRead(readKey("SEARCH_CARS", query, searchField), timeoutMillis, (cars, columns) -> CarQueryEngine.search(cars, query, searchField), () -> {
 
-        try {
+            Map<String, Object> command = new HashMap<>();
+
+            command.put("action", "SEARCH_CARS");
+
+            command.put("query", query);
+
+            command.put("searchField", searchField);
+
+            return sendCommandAsync(command, timeoutMillis);
 
-            String response = sendCommand(command);
+        });
+
+    }
 
-            Type carListType = new TypeToken<List<Car>>() {}.getType();
 
-            return parseResponseData(response, carListType); // Path correction happens here
+
+    public static List<Car> filterCars(String typeFilter, double minRating, double maxPrice, boolean availableOnly) {
+
+        return filterCars(typeFilter, minRating, maxPrice, availableOnly, 0);
+
+    }
+
+
+
+    /** As above, also keeping only cars with at least minSeats seats (0: any). */
+
+    public static List<Car> filterCars(String typeFilter, double minRating, double maxPrice, boolean availableOnly, int minSeats) {
+
+        try {
+
+            return await(filterCarsAsync(typeFilter, minRating, maxPrice, availableOnly, minSeats, defaultTimeoutMillis("FILTER_CARS")));
 
         } catch (IOException e) {
 
-            System.err.println("Error filtering cars: " + e.getMessage());
+            log.error("Error filtering cars: " + e.getMessage());
 
             return new ArrayList<>();
 
@@ -588,27 +1052,67 @@ public class CarService {
 
 
 
-    public static List<Car> sortCars(String sortBy, boolean ascending) {
+    public static CompletableFuture<List<Car>> filterCarsAsync(String typeFilter, double minRating, double maxPrice, boolean availableOnly) {
 
-        Map<String, Object> command = new HashMap<>();
+        return filterCarsAsync(typeFilter, minRating, maxPrice, availableOnly, defaultTimeoutMillis("FILTER_CARS"));
 
-        command.put("action", "SORT_CARS");
+    }
 
-        command.put("sortBy", sortBy);
 
-        command.put("ascending", ascending);
 
-        try {
+    public static CompletableFuture<List<Car>> filterCarsAsync(String typeFilter, double minRating, double maxPrice, boolean availableOnly,
+
+                                                               long timeoutMillis) {
+
+        return filterCarsAsync(typeFilter, minRating, maxPrice, availableOnly, 0, timeoutMillis);
+
+    }
+
+
+
+    public static CompletableFuture<List<Car>> filterCarsAsync(String typeFilter, double minRating, double maxPrice, boolean availableOnly,
+
+                                                               int minSeats, long timeoutMillis) {
 
-            String response = sendCommand(command);
+        return localRead(readKey("FILTER_CARS", typeFilter, minRating, maxPrice, availableOnly, minSeats), timeoutMillis,
 
-            Type carListType = new TypeToken<List<Car>>() {}.getType();
+                (cars, columns) -> CarQueryEngine.filter(columns, typeFilter, minRating, maxPrice, availableOnly, minSeats), () -> {
 
-            return parseResponseData(response, carListType); // Path correction happens here
+            Map<String, Object> command = new HashMap<>();
+
+            command.put("action", "FILTER_CARS");
+
+            command.put("typeFilter", typeFilter);
+
+            command.put("minRating", minRating);
+
+            command.put("maxPrice", maxPrice);
+
+            command.put("availableOnly", availableOnly);
+
+            if (minSeats > 0) {
+
+                command.put("minSeats", minSeats); // Left out otherwise, so the command is what older backends know
+
+            }
+
+            return sendCommandAsync(command, timeoutMillis);
+
+        });
+
+    }
+
+
+
+    public static List<Car> sortCars(String sortBy, boolean ascending) {
+
+        try {
+
+            return await(sortCarsAsync(sortBy, ascending));
 
         } catch (IOException e) {
 
-            System.err.println("Error sorting cars: " + e.getMessage());
+            log.error("Error sorting cars: " + e.getMessage());
 
             return new ArrayList<>();
 
@@ -616,4 +1120,32 @@ public class CarService {
 
     }
 
-}
\ No newline at end of file
+
+
+    public static CompletableFuture<List<Car>> sortCarsAsync(String sortBy, boolean ascending) {
+
+        return sortCarsAsync(sortBy, ascending, defaultTimeoutMillis("SORT_CARS"));
+
+    }
+
+
+
+    public static CompletableFuture<List<Car>> sortCarsAsync(String sortBy, boolean ascending, long timeoutMillis) {
+
+        return localRead(readKey("SORT_CARS", sortBy, ascending), timeoutMillis, (cars, columns) -> CarQueryEngine.sort(cars, sortBy, ascending), () -> {
+
+            Map<String, Object> command = new HashMap<>();
+
+            command.put("action", "SORT_CARS");
+
+            command.put("sortBy", sortBy);
+
+            command.put("ascending", ascending);
+
+            return sendCommandAsync(command, timeoutMillis);
+
+        });
+
+    }
+
+}
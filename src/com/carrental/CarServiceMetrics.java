@@ -0,0 +1,131 @@
+// src/com/carrental/CarServiceMetrics.java
+package com.carrental;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Per-action latency histograms and outcome counters for every command sent to the backend.
+ * CarService records end-to-end time, timeouts and failures; ExternalProcessBackend records
+ * the serialize, wait and parse phases and malformed responses; InProcessCarBackend records
+ * the wait. Supervisor heartbeats show up as PING. Published over JMX as
+ * {@link CarServiceMetricsMXBean}.
+ */
+class CarServiceMetrics implements CarServiceMetricsMXBean {
+    private static final Log log = Log.of(CarServiceMetrics.class);
+    static final String OBJECT_NAME = "com.carrental:type=CarServiceMetrics";
+    static final CarServiceMetrics INSTANCE = new CarServiceMetrics();
+
+    private final Map<String, ActionMetrics> actions = new ConcurrentHashMap<>();
+
+    private CarServiceMetrics() {
+    }
+
+    /** Publishes the metrics on the platform MBean server; harmless if already registered. */
+    void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            log.warn("Could not register CarService metrics with JMX: " + e.getMessage());
+        }
+    }
+
+    void recordEndToEnd(String action, long nanos) { of(action).endToEnd.record(nanos); }
+    void recordSerialize(String action, long nanos) { of(action).serialize.record(nanos); }
+    void recordWait(String action, long nanos) { of(action).wait.record(nanos); }
+    void recordParse(String action, long nanos) { of(action).parse.record(nanos); }
+    void recordTimeout(String action) { of(action).timeouts.increment(); }
+    void recordMalformedResponse(String action) { of(action).malformedResponses.increment(); }
+    void recordFailure(String action) { of(action).failures.increment(); }
+
+    private ActionMetrics of(String action) {
+        return actions.computeIfAbsent(action == null ? "" : action, key -> new ActionMetrics());
+    }
+
+    @Override
+    public List<ActionStats> getActions() {
+        List<ActionStats> stats = new ArrayList<>();
+        for (Map.Entry<String, ActionMetrics> entry : new TreeMap<>(actions).entrySet()) {
+            ActionMetrics metrics = entry.getValue();
+            stats.add(new ActionStats(entry.getKey(), stats(metrics.endToEnd), stats(metrics.serialize), stats(metrics.wait),
+                    stats(metrics.parse), metrics.timeouts.sum(), metrics.malformedResponses.sum(), metrics.failures.sum()));
+        }
+        return stats;
+    }
+
+    @Override
+    public long getTimeouts() {
+        long total = 0;
+        for (ActionMetrics metrics : actions.values()) {
+            total += metrics.timeouts.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getMalformedResponses() {
+        long total = 0;
+        for (ActionMetrics metrics : actions.values()) {
+            total += metrics.malformedResponses.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder(String.format("%-18s %-10s %8s %10s %10s %10s %10s%n",
+                "action", "phase", "count", "p50 us", "p99 us", "p99.9 us", "max us"));
+        for (ActionStats action : getActions()) {
+            int rowsBefore = summary.length();
+            appendRow(summary, action.getAction(), "end-to-end", action.getEndToEnd());
+            // Only the first row printed for an action carries its name
+            appendRow(summary, summary.length() == rowsBefore ? action.getAction() : "", "serialize", action.getSerialize());
+            appendRow(summary, summary.length() == rowsBefore ? action.getAction() : "", "wait", action.getWait());
+            appendRow(summary, summary.length() == rowsBefore ? action.getAction() : "", "parse", action.getParse());
+            if (action.getTimeouts() + action.getMalformedResponses() + action.getFailures() > 0) {
+                summary.append(String.format("%-18s %d timeouts, %d malformed responses, %d other failures%n",
+                        "", action.getTimeouts(), action.getMalformedResponses(), action.getFailures()));
+            }
+        }
+        return summary.toString();
+    }
+
+    private static void appendRow(StringBuilder summary, String action, String phase, LatencyStats stats) {
+        if (stats.getCount() > 0) {
+            summary.append(String.format("%-18s %-10s %8d %10.1f %10.1f %10.1f %10.1f%n", action, phase, stats.getCount(),
+                    stats.getP50Micros(), stats.getP99Micros(), stats.getP999Micros(), stats.getMaxMicros()));
+        }
+    }
+
+    @Override
+    public void reset() {
+        actions.clear(); // Recorders holding an old entry finish into it and are not counted
+    }
+
+    private static LatencyStats stats(LatencyHistogram histogram) {
+        return new LatencyStats(histogram.count(), histogram.meanNanos() / 1000.0, histogram.percentileNanos(50) / 1000.0,
+                histogram.percentileNanos(99) / 1000.0, histogram.percentileNanos(99.9) / 1000.0, histogram.maxNanos() / 1000.0);
+    }
+
+    private static final class ActionMetrics {
+        final LatencyHistogram endToEnd = new LatencyHistogram();
+        final LatencyHistogram serialize = new LatencyHistogram();
+        final LatencyHistogram wait = new LatencyHistogram();
+        final LatencyHistogram parse = new LatencyHistogram();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder malformedResponses = new LongAdder();
+        final LongAdder failures = new LongAdder();
+    }
+}
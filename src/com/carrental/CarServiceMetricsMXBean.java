@@ -0,0 +1,92 @@
+// src/com/carrental/CarServiceMetricsMXBean.java
+package com.carrental;
+
+import java.util.List;
+
+/**
+ * Management view of CarService's command metrics, registered as
+ * {@value CarServiceMetrics#OBJECT_NAME} on the platform MBean server (open it in JConsole or
+ * VisualVM). Latencies are in microseconds and cover everything since start-up or the last
+ * {@link #reset()}.
+ */
+public interface CarServiceMetricsMXBean {
+
+    /** One entry per command action seen, in alphabetical order. */
+    List<ActionStats> getActions();
+
+    /** Commands the backend did not answer in time, all actions together. */
+    long getTimeouts();
+
+    /** Responses that could not be decoded, all actions together. */
+    long getMalformedResponses();
+
+    /** The same figures as a plain-text table. */
+    String getSummary();
+
+    /** Clears every histogram and counter. */
+    void reset();
+
+    /** Latency and outcome figures for one action. */
+    final class ActionStats {
+        private final String action;
+        private final LatencyStats endToEnd;
+        private final LatencyStats serialize;
+        private final LatencyStats wait;
+        private final LatencyStats parse;
+        private final long timeouts;
+        private final long malformedResponses;
+        private final long failures;
+
+        ActionStats(String action, LatencyStats endToEnd, LatencyStats serialize, LatencyStats wait, LatencyStats parse,
+                    long timeouts, long malformedResponses, long failures) {
+            this.action = action;
+            this.endToEnd = endToEnd;
+            this.serialize = serialize;
+            this.wait = wait;
+            this.parse = parse;
+            this.timeouts = timeouts;
+            this.malformedResponses = malformedResponses;
+            this.failures = failures;
+        }
+
+        public String getAction() { return action; }
+        /** From CarService sending the command to its future completing. */
+        public LatencyStats getEndToEnd() { return endToEnd; }
+        /** Encoding the command for the wire (external backends only). */
+        public LatencyStats getSerialize() { return serialize; }
+        /** From handing the command to the transport (or in-process engine) to its answer arriving. */
+        public LatencyStats getWait() { return wait; }
+        /** Decoding the response (external backends only). */
+        public LatencyStats getParse() { return parse; }
+        public long getTimeouts() { return timeouts; }
+        public long getMalformedResponses() { return malformedResponses; }
+        /** Commands that failed for any other reason, such as a dead channel or an open circuit breaker. */
+        public long getFailures() { return failures; }
+    }
+
+    /** Percentiles of one latency histogram, in microseconds. */
+    final class LatencyStats {
+        private final long count;
+        private final double mean;
+        private final double p50;
+        private final double p99;
+        private final double p999;
+        private final double max;
+
+        LatencyStats(long count, double mean, double p50, double p99, double p999, double max) {
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+
+        public long getCount() { return count; }
+        public double getMeanMicros() { return mean; }
+        public double getP50Micros() { return p50; }
+        public double getP99Micros() { return p99; }
+        public double getP999Micros() { return p999; }
+        public double getMaxMicros() { return max; }
+    }
+}
@@ -0,0 +1,61 @@
+// src/com/carrental/CarStrings.java
+package com.carrental;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One shared String per distinct value of the car fields that repeat across the fleet: type,
+ * transmission, vehicle class, seats and image path. The decoders pass those fields through
+ * here, so a hundred thousand cars of a dozen models hold a dozen Strings instead of a copy
+ * each, and values taken from the catalog (the type filter's items, for one) compare equal by
+ * reference. Bounded: once MAX_ENTRIES distinct values are held, new ones are returned as they
+ * came, which only costs the sharing, never correctness.
+ */
+final class CarStrings {
+    static final CarStrings CATALOG = new CarStrings(4096);
+
+    private final int maxEntries;
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+    private final Map<String, String> imagePaths = new ConcurrentHashMap<>(); // Backend path -> shared classpath path
+
+    CarStrings(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /** The shared instance equal to value, adding it if there is room. */
+    String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String shared = values.get(value);
+        if (shared != null) {
+            return shared;
+        }
+        if (values.size() >= maxEntries) {
+            return value;
+        }
+        shared = values.putIfAbsent(value, value);
+        return shared == null ? value : shared;
+    }
+
+    /**
+     * The shared classpath form of an image path as the backend stores it. Keyed on the backend
+     * form so a known path costs one lookup and no rewriting.
+     */
+    String imagePath(String backendPath) {
+        if (backendPath == null) {
+            return null;
+        }
+        String shared = imagePaths.get(backendPath);
+        if (shared != null) {
+            return shared;
+        }
+        String path = CarTypeAdapter.toClasspathImagePath(backendPath);
+        if (imagePaths.size() >= maxEntries) {
+            return path;
+        }
+        shared = imagePaths.putIfAbsent(backendPath, path);
+        return shared == null ? path : shared;
+    }
+}
@@ -0,0 +1,35 @@
+// src/com/carrental/CarTransport.java
+package com.carrental;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * A channel between ExternalProcessBackend and the C++ Car Manager. A transport carries encoded commands
+ * to the backend and completes each one with the encoded response carrying the same command
+ * id. Transports that can keep several commands in flight do so; the rest queue internally.
+ */
+interface CarTransport {
+
+    /**
+     * Sends a command without waiting for its response.
+     *
+     * @return a future completed with the raw response bytes, with null if the backend did not
+     *         answer in time, or exceptionally if the channel failed
+     */
+    CompletableFuture<byte[]> send(String commandId, byte[] command, long timeoutMillis);
+
+    /**
+     * Receives the records the backend sends without being asked (catalog change notices),
+     * on the transport's reader thread. Transports without a channel back from the backend
+     * between commands (the file exchange) never call it.
+     */
+    default void onEvent(Consumer<byte[]> listener) {
+    }
+
+    /** Short name used in log lines ("stdio", "file", ...). */
+    String name();
+
+    /** Releases the channel. The backend process itself is owned by ExternalProcessBackend. */
+    void close();
+}
@@ -0,0 +1,95 @@
+// src/com/carrental/CarTypeAdapter.java
+package com.carrental;
+
+import com.carrental.model.Car;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Streams a Car to and from the backend's JSON object form without reflection or an
+ * intermediate Map. Image paths are rewritten for classpath loading while the object is read,
+ * so decoded cars are ready for the UI as soon as they come off the wire, and the fields that
+ * repeat across the fleet are shared through CarStrings.CATALOG.
+ */
+final class CarTypeAdapter extends TypeAdapter<Car> {
+    static final CarTypeAdapter INSTANCE = new CarTypeAdapter();
+
+    private static final String BACKEND_IMAGE_PREFIX = "src/Images/";
+    private static final String CLASSPATH_IMAGE_PREFIX = "/Images/";
+
+    private CarTypeAdapter() {
+    }
+
+    /** The C++ side stores "src/Images/x.jpg"; Swing loads "/Images/x.jpg" from the classpath. */
+    static String toClasspathImagePath(String path) {
+        if (path != null && path.startsWith(BACKEND_IMAGE_PREFIX)) {
+            return CLASSPATH_IMAGE_PREFIX + path.substring(BACKEND_IMAGE_PREFIX.length());
+        }
+        return path;
+    }
+
+    @Override
+    public void write(JsonWriter out, Car car) throws IOException {
+        if (car == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("name").value(car.getName());
+        out.name("available").value(car.isAvailable());
+        out.name("type").value(car.getType());
+        out.name("rating").value(car.getRating());
+        out.name("imagePath").value(car.getImagePath());
+        out.name("mileage").value(car.getMileage());
+        out.name("maxSpeed").value(car.getMaxSpeed());
+        out.name("seats").value(car.getSeats());
+        out.name("transmission").value(car.getTransmission());
+        out.name("vehicleClass").value(car.getVehicleClass());
+        out.name("price").value(car.getPrice());
+        out.name("releaseDate").value(car.getReleaseDate());
+        out.endObject();
+    }
+
+    @Override
+    public Car read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String name = null, type = null, imagePath = null, mileage = null, maxSpeed = null;
+        String seats = null, transmission = null, vehicleClass = null, releaseDate = null;
+        boolean available = false;
+        double rating = 0, price = 0;
+        CarStrings strings = CarStrings.CATALOG;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String field = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "name": name = in.nextString(); break;
+                case "available": available = in.nextBoolean(); break;
+                case "type": type = strings.intern(in.nextString()); break;
+                case "rating": rating = in.nextDouble(); break;
+                case "imagePath": imagePath = strings.imagePath(in.nextString()); break;
+                case "mileage": mileage = in.nextString(); break;
+                case "maxSpeed": maxSpeed = in.nextString(); break;
+                case "seats": seats = strings.intern(in.nextString()); break;
+                case "transmission": transmission = strings.intern(in.nextString()); break;
+                case "vehicleClass": vehicleClass = strings.intern(in.nextString()); break;
+                case "price": price = in.nextDouble(); break;
+                case "releaseDate": releaseDate = in.nextString(); break;
+                default: in.skipValue(); break;
+            }
+        }
+        in.endObject();
+        return new Car(name, available, type, rating, imagePath, mileage, maxSpeed, seats, transmission, vehicleClass, price, releaseDate);
+    }
+}
@@ -0,0 +1,239 @@
+// src/com/carrental/CatalogSync.java
+package com.carrental;
+
+import com.carrental.model.Car;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a list of cars in step with the backend by asking only for what changed since the
+ * catalog version it last synced to (GET_CHANGES_SINCE), so a refresh after one edit moves one
+ * car instead of the whole catalog. Updated cars are changed in place, keeping their position
+ * in the list and any references the UI holds; new cars are appended and deleted ones removed.
+ * The backend answers with the full catalog instead when the list is too far behind, and a
+ * backend without the action (the prebuilt CarManager.exe) gets a full GET_ALL_CARS reload.
+ * Every sync that changes the list is reported to the change listener as a CarChangeEvent.
+ */
+class CatalogSync {
+    private static final Log log = Log.of(CatalogSync.class);
+
+    private final List<Car> cars;
+    private final Map<String, Car> carsByName = new HashMap<>();
+    private final CarCatalog columns = new CarCatalog(); // The same cars, column by column, for filter scans
+    private volatile long sequence = CarResponse.NO_VERSION; // Catalog version of the last sync; none yet
+    private volatile Consumer<CarChangeEvent> changeListener;
+
+    CatalogSync(List<Car> cars) {
+        this.cars = cars;
+    }
+
+    void onChange(Consumer<CarChangeEvent> listener) {
+        changeListener = listener;
+    }
+
+    /** The catalog version the list was last synced to, or NO_VERSION. */
+    long version() {
+        return sequence;
+    }
+
+    /** Whether a GET_CHANGES_SINCE response carries changes, rather than the backend lacking the action. */
+    static boolean isChanges(CarResponse response) {
+        return response.isSuccess() && response.data instanceof Map;
+    }
+
+    /**
+     * Brings the list up to date on the calling thread, which must be the one that owns the list
+     * (the EDT once the UI shows it). Returns false if the backend could not be reached. The
+     * backend is asked without holding the lock, so reads on the EDT never wait on the IPC.
+     */
+    boolean refresh() {
+        long since = sequence;
+        CarResponse response = CarService.getChangesSince(since);
+        if (response == null) {
+            return false;
+        }
+        if (!isChanges(response)) {
+            reload(fetchAll(response));
+            return true;
+        }
+        apply(since, response);
+        return true;
+    }
+
+    /**
+     * The full GET_ALL_CARS load for a backend that answered GET_CHANGES_SINCE with response
+     * instead of changes. Changes nothing in the list; hand the result to reload on the thread
+     * that owns it.
+     */
+    List<Car> fetchAll(CarResponse response) {
+        log.warn("Backend cannot send changes (" + response.message + "); reloading all cars.");
+        synchronized (this) {
+            sequence = CarResponse.NO_VERSION; // Before the reload, so it is not answered from this snapshot
+        }
+        return CarService.getAllCars();
+    }
+
+    /** Replaces the list with the cars fetchAll returned. */
+    synchronized void reload(List<Car> latest) {
+        sequence = CarResponse.NO_VERSION; // A delta applied since fetchAll does not describe this list
+        replaceAll(latest);
+        publish(CarChangeEvent.reloaded());
+    }
+
+    /**
+     * Applies a GET_CHANGES_SINCE response fetched for version since. Returns false, changing
+     * nothing, if another sync has moved the list on since that fetch.
+     */
+    synchronized boolean apply(long since, CarResponse response) {
+        if (since != sequence) {
+            return false;
+        }
+        Map<?, ?> changes = (Map<?, ?>) response.data;
+        List<Car> upserted = toCars(changes.get("cars"));
+        long previous = sequence;
+        sequence = changes.get("sequence") instanceof Number ? ((Number) changes.get("sequence")).longValue() : CarResponse.NO_VERSION;
+        if (Boolean.TRUE.equals(changes.get("reset"))) {
+            replaceAll(upserted);
+            log.info("Loaded " + cars.size() + " cars (catalog version " + sequence + ").");
+            publish(CarChangeEvent.reloaded());
+            return true;
+        }
+
+        List<Car> changed = new ArrayList<>(upserted.size());
+        for (Car car : upserted) {
+            Car existing = carsByName.get(car.getName());
+            if (existing != null) {
+                copyInto(existing, car);
+                columns.put(existing);
+                changed.add(existing);
+            } else {
+                cars.add(car);
+                carsByName.put(car.getName(), car);
+                columns.put(car);
+                changed.add(car);
+            }
+        }
+        Set<String> deleted = new HashSet<>();
+        if (changes.get("deleted") instanceof List) {
+            for (Object name : (List<?>) changes.get("deleted")) {
+                if (carsByName.remove(String.valueOf(name)) != null) {
+                    columns.remove(String.valueOf(name));
+                    deleted.add(String.valueOf(name));
+                }
+            }
+        }
+        if (!deleted.isEmpty()) {
+            cars.removeIf(car -> deleted.contains(car.getName()));
+        }
+        if (!upserted.isEmpty() || !deleted.isEmpty()) {
+            log.debug(() -> "Applied " + upserted.size() + " added/updated and " + deleted.size()
+                    + " deleted cars (catalog version " + previous + " -> " + sequence + ").");
+            publish(new CarChangeEvent(false, changed, deleted));
+        }
+        return true;
+    }
+
+    private void publish(CarChangeEvent event) {
+        Consumer<CarChangeEvent> listener = changeListener;
+        if (listener != null) {
+            listener.accept(event);
+        }
+    }
+
+    /** A read over the synced cars, given both in catalog order and as columns to scan. */
+    interface Query {
+        List<Car> run(List<Car> cars, CarCatalog columns);
+    }
+
+    /**
+     * Runs query over the synced cars if they are at catalogVersion, or returns null if they
+     * are behind it or were never synced with a version. The Car objects in the result are the
+     * snapshot's own.
+     */
+    synchronized List<Car> queryIfCurrent(long catalogVersion, Query query) {
+        if (catalogVersion == CarResponse.NO_VERSION || sequence != catalogVersion) {
+            return null;
+        }
+        return query.run(cars, columns);
+    }
+
+    /**
+     * The synced cars whose name, type or vehicle class contains text and that have the given
+     * type (null: any), availability (null: either) and at least minSeats seats, in catalog
+     * order. Found by a column scan; only the matching cars are touched as objects.
+     */
+    synchronized List<Car> select(String text, String type, Boolean available, int minSeats) {
+        return columns.cars(columns.scan(text, type, available, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, minSeats));
+    }
+
+    /** Completions for the search field from the synced names, types and classes, best first. */
+    synchronized List<String> suggest(String text, int limit) {
+        return columns.suggest(text, limit);
+    }
+
+    private void replaceAll(List<Car> latest) {
+        cars.clear();
+        carsByName.clear();
+        columns.clear();
+        for (Car car : latest) {
+            if (carsByName.putIfAbsent(car.getName(), car) == null) {
+                cars.add(car);
+                columns.put(car);
+            }
+        }
+        columns.settle(); // Sort the indexes now, during the load, not on the first keystroke
+    }
+
+    private static void copyInto(Car target, Car source) {
+        target.setAvailable(source.isAvailable());
+        target.setType(source.getType());
+        target.setRating(source.getRating());
+        target.setImagePath(source.getImagePath());
+        target.setMileage(source.getMileage());
+        target.setMaxSpeed(source.getMaxSpeed());
+        target.setSeats(source.getSeats());
+        target.setTransmission(source.getTransmission());
+        target.setVehicleClass(source.getVehicleClass());
+        target.setPrice(source.getPrice());
+        target.setReleaseDate(source.getReleaseDate());
+    }
+
+    /**
+     * The compact codec and the in-process backend hand over Car objects; the JSON codec leaves
+     * a nested car list as generic maps, so those are converted here.
+     */
+    private static List<Car> toCars(Object value) {
+        List<Car> result = new ArrayList<>();
+        if (!(value instanceof List)) {
+            return result;
+        }
+        for (Object item : (List<?>) value) {
+            if (item instanceof Car) {
+                result.add((Car) item);
+            } else if (item instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) item;
+                CarStrings strings = CarStrings.CATALOG;
+                result.add(new Car(string(map.get("name")), Boolean.TRUE.equals(map.get("available")), strings.intern(string(map.get("type"))),
+                        number(map.get("rating")), strings.imagePath(string(map.get("imagePath"))),
+                        string(map.get("mileage")), string(map.get("maxSpeed")), strings.intern(string(map.get("seats"))),
+                        strings.intern(string(map.get("transmission"))), strings.intern(string(map.get("vehicleClass"))),
+                        number(map.get("price")), string(map.get("releaseDate"))));
+            }
+        }
+        return result;
+    }
+
+    private static String string(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0.0;
+    }
+}
@@ -0,0 +1,78 @@
+// src/com/carrental/CircuitBreaker.java
+package com.carrental;
+
+/**
+ * Lets callers fail fast while the backend is known to be down instead of each waiting out a
+ * full command timeout. Closed, it passes everything and counts consecutive failures; at
+ * failureThreshold it opens and rejects everything for openMillis. After that a single trial
+ * command is let through (half-open): success closes the breaker, failure reopens it.
+ * The supervisor can also open and close it directly when it knows the backend's state.
+ */
+class CircuitBreaker {
+    private static final Log log = Log.of(CircuitBreaker.class);
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /** Whether a command may be sent now. In half-open state only one trial is admitted. */
+    synchronized boolean allowRequest() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    /** An outcome that says nothing about the backend, such as a caller's own short deadline passing. */
+    synchronized void recordInconclusive() {
+        trialInFlight = false; // Let another trial through; the breaker stays as it is
+    }
+
+    synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            trip();
+        }
+    }
+
+    /** Opens the breaker now, e.g. when the supervisor has seen the process die. */
+    synchronized void trip() {
+        if (state != State.OPEN) {
+            log.warn("Car backend circuit breaker opened; commands fail fast for " + openMillis + " ms.");
+        }
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
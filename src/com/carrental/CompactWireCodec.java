@@ -0,0 +1,336 @@
+// src/com/carrental/CompactWireCodec.java
+package com.carrental;
+
+import com.carrental.model.Car;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding for the framed channels. A body starts with MAGIC and VERSION and
+ * holds one tagged value:
+ *
+ * <pre>
+ *   0 null   1 false   2 true   3 double (8 bytes LE)   4 string (varint length, UTF-8)
+ *   5 array  (varint count, values)
+ *   6 object (varint count, then dictionary string key + value per entry)
+ *   7 car array (varint count, car records)   8 car (one car record)
+ *
+ *   car record: name, flags (bit 0 = available), dict type, double rating, imagePath,
+ *               mileage, maxSpeed, seats, dict transmission, dict vehicleClass,
+ *               double price, releaseDate
+ *
+ *   dictionary string: varint n; n == 0 defines the next entry (varint length, UTF-8),
+ *                      n > 0 refers to entry n - 1 defined earlier in the same body
+ * </pre>
+ *
+ * The string fields of a car record have no null: a null is sent as "" and decodes as "", on
+ * both sides. That is what a car holds once the backend has stored it anyway, since the C++
+ * Car has no null strings, but unlike the JSON codec a null does not survive the round trip.
+ * A null anywhere outside a car record is tag 0.
+ *
+ * Object keys and the low-cardinality car fields are sent once per body; prices and ratings
+ * travel as raw doubles. Car records decode straight into Car objects with classpath image
+ * paths, sharing repeated field values through CarStrings.CATALOG across bodies as well.
+ * src/cpp/CompactCodec.cpp is the backend half.
+ */
+final class CompactWireCodec implements WireCodec {
+    static final CompactWireCodec INSTANCE = new CompactWireCodec();
+
+    static final int MAGIC = 0xCB;
+    static final int VERSION = 1;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_DOUBLE = 3;
+    private static final int TAG_STRING = 4;
+    private static final int TAG_ARRAY = 5;
+    private static final int TAG_OBJECT = 6;
+    private static final int TAG_CAR_ARRAY = 7;
+    private static final int TAG_CAR = 8;
+
+    private CompactWireCodec() {
+    }
+
+    static boolean isCompact(byte[] body) {
+        return body.length >= 2 && (body[0] & 0xFF) == MAGIC;
+    }
+
+    @Override
+    public String name() {
+        return "compact";
+    }
+
+    @Override
+    public byte[] encodeCommand(Map<String, Object> command) {
+        Encoder encoder = new Encoder();
+        encoder.writeByte(MAGIC);
+        encoder.writeByte(VERSION);
+        encoder.writeValue(command);
+        return encoder.toByteArray();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CarResponse decodeResponse(byte[] body, boolean carList) throws IOException {
+        Decoder decoder = new Decoder(body);
+        if (decoder.readByte() != MAGIC || decoder.readByte() != VERSION) {
+            throw new IOException("Not a compact v" + VERSION + " body.");
+        }
+        Object value = decoder.readValue();
+        if (!(value instanceof Map)) {
+            throw new IOException("Compact response is not an object.");
+        }
+        return CarResponse.fromMap((Map<String, Object>) value);
+    }
+
+    @Override
+    public String describe(byte[] body) {
+        return "<compact, " + body.length + " bytes>";
+    }
+
+    private static final class Encoder {
+        private byte[] bytes = new byte[256];
+        private int size;
+        private final Map<String, Integer> dictionary = new LinkedHashMap<>();
+
+        void writeValue(Object value) {
+            if (value == null) {
+                writeByte(TAG_NULL);
+            } else if (value instanceof Boolean) {
+                writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+            } else if (value instanceof Number) {
+                writeByte(TAG_DOUBLE);
+                writeDouble(((Number) value).doubleValue());
+            } else if (value instanceof String) {
+                writeByte(TAG_STRING);
+                writeString((String) value);
+            } else if (value instanceof Car) {
+                writeByte(TAG_CAR);
+                writeCar((Car) value);
+            } else if (value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                writeByte(TAG_OBJECT);
+                writeVarint(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeDictionaryString(String.valueOf(entry.getKey()));
+                    writeValue(entry.getValue());
+                }
+            } else if (value instanceof Collection) {
+                Collection<?> items = (Collection<?>) value;
+                boolean allCars = !items.isEmpty() && items.stream().allMatch(item -> item instanceof Car);
+                writeByte(allCars ? TAG_CAR_ARRAY : TAG_ARRAY);
+                writeVarint(items.size());
+                for (Object item : items) {
+                    if (allCars) {
+                        writeCar((Car) item);
+                    } else {
+                        writeValue(item);
+                    }
+                }
+            } else {
+                throw new IllegalArgumentException("Cannot encode " + value.getClass().getName() + " in compact form.");
+            }
+        }
+
+        void writeCar(Car car) {
+            writeString(car.getName());
+            writeByte(car.isAvailable() ? 1 : 0);
+            writeDictionaryString(car.getType());
+            writeDouble(car.getRating());
+            writeString(car.getImagePath());
+            writeString(car.getMileage());
+            writeString(car.getMaxSpeed());
+            writeString(car.getSeats());
+            writeDictionaryString(car.getTransmission());
+            writeDictionaryString(car.getVehicleClass());
+            writeDouble(car.getPrice());
+            writeString(car.getReleaseDate());
+        }
+
+        void writeDictionaryString(String value) {
+            String text = value == null ? "" : value;
+            Integer index = dictionary.get(text);
+            if (index != null) {
+                writeVarint(index + 1);
+            } else {
+                dictionary.put(text, dictionary.size());
+                writeVarint(0);
+                writeString(text);
+            }
+        }
+
+        void writeString(String value) {
+            byte[] utf8 = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        void writeDouble(double value) {
+            long raw = Double.doubleToLongBits(value);
+            ensure(8);
+            for (int i = 0; i < 8; i++) {
+                bytes[size++] = (byte) (raw >>> (8 * i));
+            }
+        }
+
+        void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                byte[] grown = new byte[Math.max(bytes.length * 2, size + extra)];
+                System.arraycopy(bytes, 0, grown, 0, size);
+                bytes = grown;
+            }
+        }
+
+        byte[] toByteArray() {
+            byte[] result = new byte[size];
+            System.arraycopy(bytes, 0, result, 0, size);
+            return result;
+        }
+    }
+
+    private static final class Decoder {
+        private final byte[] bytes;
+        private int position;
+        private final List<String> dictionary = new ArrayList<>();
+
+        Decoder(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        Object readValue() throws IOException {
+            int tag = readByte();
+            switch (tag) {
+                case TAG_NULL:
+                    return null;
+                case TAG_FALSE:
+                    return Boolean.FALSE;
+                case TAG_TRUE:
+                    return Boolean.TRUE;
+                case TAG_DOUBLE:
+                    return readDouble();
+                case TAG_STRING:
+                    return readString();
+                case TAG_ARRAY: {
+                    int count = readVarint();
+                    List<Object> items = new ArrayList<>(Math.min(count, bytes.length));
+                    for (int i = 0; i < count; i++) {
+                        items.add(readValue());
+                    }
+                    return items;
+                }
+                case TAG_OBJECT: {
+                    int count = readVarint();
+                    Map<String, Object> map = new LinkedHashMap<>();
+                    for (int i = 0; i < count; i++) {
+                        String key = readDictionaryString();
+                        map.put(key, readValue());
+                    }
+                    return map;
+                }
+                case TAG_CAR_ARRAY: {
+                    int count = readVarint();
+                    List<Car> cars = new ArrayList<>(Math.min(count, bytes.length));
+                    for (int i = 0; i < count; i++) {
+                        cars.add(readCar());
+                    }
+                    return cars;
+                }
+                case TAG_CAR:
+                    return readCar();
+                default:
+                    throw new IOException("Unknown compact tag " + tag + " at offset " + (position - 1));
+            }
+        }
+
+        Car readCar() throws IOException {
+            String name = readString();
+            boolean available = (readByte() & 1) != 0;
+            String type = readDictionaryString();
+            double rating = readDouble();
+            String imagePath = CarStrings.CATALOG.imagePath(readString());
+            String mileage = readString();
+            String maxSpeed = readString();
+            String seats = CarStrings.CATALOG.intern(readString());
+            String transmission = readDictionaryString();
+            String vehicleClass = readDictionaryString();
+            double price = readDouble();
+            String releaseDate = readString();
+            return new Car(name, available, type, rating, imagePath, mileage, maxSpeed, seats, transmission, vehicleClass, price, releaseDate);
+        }
+
+        String readDictionaryString() throws IOException {
+            int reference = readVarint();
+            if (reference == 0) {
+                String value = CarStrings.CATALOG.intern(readString()); // Once per body, then by reference
+                dictionary.add(value);
+                return value;
+            }
+            if (reference > dictionary.size()) {
+                throw new IOException("Compact dictionary reference " + reference + " out of range.");
+            }
+            return dictionary.get(reference - 1);
+        }
+
+        String readString() throws IOException {
+            int length = readVarint();
+            require(length);
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        double readDouble() throws IOException {
+            require(8);
+            long raw = 0;
+            for (int i = 0; i < 8; i++) {
+                raw |= (bytes[position++] & 0xFFL) << (8 * i);
+            }
+            return Double.longBitsToDouble(raw);
+        }
+
+        int readVarint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in compact body.");
+        }
+
+        int readByte() throws IOException {
+            require(1);
+            return bytes[position++] & 0xFF;
+        }
+
+        private void require(int count) throws IOException {
+            if (count < 0 || position + count > bytes.length) {
+                throw new IOException("Truncated compact body.");
+            }
+        }
+    }
+}
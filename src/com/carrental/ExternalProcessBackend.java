@@ -0,0 +1,322 @@
+// src/com/carrental/ExternalProcessBackend.java
+package com.carrental;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * Runs the C++ Car Manager as a child process and exchanges commands with it over one of the
+ * CarTransports: the shared-memory ring, framed stdio pipes, or command.json/result.json.
+ */
+class ExternalProcessBackend implements CarBackend {
+    private static final Log log = Log.of(ExternalProcessBackend.class);
+    private static final long HANDSHAKE_TIMEOUT_MILLIS = 3000;
+    private static final long CANCEL_TIMEOUT_MILLIS = 1000;
+
+    // Actions whose "data" is a list of cars; tells the JSON decoder to stream it into Car objects.
+    private static final Set<String> CAR_LIST_ACTIONS = Set.of("GET_ALL_CARS", "SEARCH_CARS", "FILTER_CARS", "SORT_CARS");
+    // Sent every few seconds by BackendSupervisor; logged only at TRACE.
+    private static final Set<String> QUIET_ACTIONS = Set.of("PING");
+    // Not worth a CANCEL when they time out: cheap, and the supervisor or handshake acts on the timeout itself.
+    private static final Set<String> UNCANCELLED_ACTIONS = Set.of("HELLO", "PING", "CANCEL");
+
+    private final File executable;
+    private final File workingDirectory;
+    private volatile Process cppProcess;
+    private volatile CarTransport transport;
+    private volatile WireCodec codec = JsonWireCodec.INSTANCE;
+    private volatile LongConsumer catalogListener;
+
+    ExternalProcessBackend(File executable, File workingDirectory) {
+        this.executable = executable;
+        this.workingDirectory = workingDirectory;
+    }
+
+    /**
+     * Starts the process on the preferred channel. ipcMode "shm" tries the shared ring first,
+     * anything but "file" tries stdio next, and the file exchange is the last resort.
+     * wireEncoding "json" declines the compact encoding even if the backend offers it.
+     */
+    void start(String ipcMode, String wireEncoding) throws IOException {
+        if (!workingDirectory.isDirectory()) {
+            throw new IOException("C++ working directory not found: " + workingDirectory.getAbsolutePath());
+        }
+        try {
+            if ("shm".equals(ipcMode) && startSharedMemoryBackend(wireEncoding)) {
+                return;
+            }
+            if (!"file".equals(ipcMode) && startStdioBackend(wireEncoding)) {
+                return;
+            }
+            startFileBackend();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts the process on the stdio channel only, for a warm standby: the shared ring file and
+     * command.json can only serve one process at a time.
+     */
+    void startStdioOnly(String wireEncoding) throws IOException {
+        if (!workingDirectory.isDirectory()) {
+            throw new IOException("C++ working directory not found: " + workingDirectory.getAbsolutePath());
+        }
+        if (!startStdioBackend(wireEncoding)) {
+            throw new IOException("C++ backend did not answer on the stdio channel.");
+        }
+    }
+
+    @Override
+    public void onCatalogChanged(LongConsumer listener) {
+        catalogListener = listener;
+    }
+
+    /** A CATALOG_CHANGED record the backend pushed; runs on the transport's reader thread. */
+    private void catalogEvent(byte[] body) {
+        LongConsumer listener = catalogListener;
+        try {
+            CarResponse event = WireCodec.forBody(body).decodeResponse(body, false);
+            log.debug(() -> "C++ catalog changed, now at version " + event.version + ".");
+            if (listener != null) {
+                listener.accept(event.version);
+            }
+        } catch (IOException e) {
+            log.warn("Could not decode C++ catalog event: " + e.getMessage());
+        }
+    }
+
+    /** Whether the process is still running and its channel is open. */
+    boolean isAlive() {
+        Process process = cppProcess;
+        return transport != null && process != null && process.isAlive();
+    }
+
+    /**
+     * Creates the shared ring file and starts the backend with --shm on it. Returns false (after
+     * stopping the process) if the backend does not answer the handshake through the ring.
+     */
+    private boolean startSharedMemoryBackend(String wireEncoding) throws IOException {
+        SharedMemoryTransport ring = new SharedMemoryTransport(workingDirectory);
+        ProcessBuilder pb = new ProcessBuilder(executable.getPath(), "--shm", SharedMemoryTransport.RING_FILE);
+        pb.directory(workingDirectory);
+        pb.inheritIO();
+
+        cppProcess = pb.start();
+        ring.onEvent(this::catalogEvent);
+        ring.attach(cppProcess);
+        transport = ring;
+        return handshake(wireEncoding, "Falling back to the stdio channel.");
+    }
+
+    /**
+     * Starts the backend with --stdio and confirms with a HELLO exchange that it speaks the
+     * framed protocol. Returns false (after stopping the process) if it does not, so the caller
+     * can fall back to file mode.
+     */
+    private boolean startStdioBackend(String wireEncoding) throws IOException {
+        ProcessBuilder pb = new ProcessBuilder(executable.getPath(), "--stdio");
+        pb.directory(workingDirectory);
+        pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+
+        cppProcess = pb.start();
+        transport = new PipeTransport(cppProcess);
+        transport.onEvent(this::catalogEvent);
+        return handshake(wireEncoding, "Falling back to file-based IPC.");
+    }
+
+    /**
+     * Sends HELLO (always as JSON) over the freshly started channel and switches to the compact
+     * encoding if the backend offers it. Tears the process down if HELLO goes unanswered.
+     */
+    private boolean handshake(String wireEncoding, String fallbackNote) {
+        codec = JsonWireCodec.INSTANCE;
+        Map<String, Object> hello = new HashMap<>();
+        hello.put("id", UUID.randomUUID().toString());
+        hello.put("action", "HELLO");
+        hello.put("encodings", List.of(CompactWireCodec.INSTANCE.name(), JsonWireCodec.INSTANCE.name()));
+        try {
+            CarResponse response = execute(hello, HANDSHAKE_TIMEOUT_MILLIS).get();
+            if (response != null && response.isSuccess()) {
+                if (!"json".equals(wireEncoding) && offersEncoding(response, CompactWireCodec.INSTANCE.name())) {
+                    codec = CompactWireCodec.INSTANCE;
+                }
+                log.info("C++ Car Manager process started successfully (" + name() + ").");
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("C++ " + transport.name() + " handshake failed: " + e.getCause().getMessage());
+        }
+
+        log.warn("C++ backend did not answer the " + transport.name() + " handshake. " + fallbackNote);
+        transport.close();
+        transport = null;
+        stopProcess();
+        return false;
+    }
+
+    private static boolean offersEncoding(CarResponse response, String encoding) {
+        if (!(response.data instanceof Map)) {
+            return false;
+        }
+        Object encodings = ((Map<?, ?>) response.data).get("encodings");
+        return encodings instanceof List && ((List<?>) encodings).contains(encoding);
+    }
+
+    private void startFileBackend() throws IOException {
+        ProcessBuilder pb = new ProcessBuilder(executable.getPath());
+        pb.directory(workingDirectory);
+        pb.inheritIO();
+
+        transport = new FileTransport(workingDirectory);
+        codec = JsonWireCodec.INSTANCE; // The C++ file loop only reads JSON
+        cppProcess = pb.start();
+        log.info("C++ Car Manager process started successfully (file channel).");
+    }
+
+    @Override
+    public String name() {
+        CarTransport channel = transport;
+        if (channel == null) {
+            return "external process, not connected";
+        }
+        return channel instanceof FileTransport ? "file channel" : channel.name() + " channel, " + codec.name() + " encoding";
+    }
+
+    /**
+     * Encodes and sends a command without blocking. The backend echoes each command's id, so
+     * any number of these can be outstanding at once. If one times out, the backend is sent a
+     * CANCEL for it so it does not spend the channel on work nobody is waiting for.
+     */
+    @Override
+    public CompletableFuture<CarResponse> execute(Map<String, Object> command, long timeoutMillis) {
+        CarTransport channel = transport;
+        WireCodec encoder = codec;
+        if (channel == null) {
+            return CompletableFuture.failedFuture(new IOException("C++ Car Manager is not running."));
+        }
+        String commandId = (String) command.get("id");
+        String action = String.valueOf(command.get("action"));
+        boolean carList = CAR_LIST_ACTIONS.contains(action);
+        boolean quiet = QUIET_ACTIONS.contains(action);
+        CarServiceMetrics metrics = CarServiceMetrics.INSTANCE;
+        long serializeStart = System.nanoTime();
+        byte[] encodedCommand = encoder.encodeCommand(command);
+        metrics.recordSerialize(action, System.nanoTime() - serializeStart);
+        // Payloads run to the whole catalog; they are only rendered, and then cut short, at DEBUG
+        log.at(quiet ? Log.Level.TRACE : Log.Level.DEBUG, () -> "Java sent command (ID: " + commandId + ", via " + channel.name() + "): "
+                + Log.payload(encoder.describe(encodedCommand)));
+
+        long sent = System.nanoTime();
+        long[] received = new long[1]; // Stamped on the transport's thread, read after the hop below
+        // Decode off the transport's reader thread so a large catalog does not hold up other responses.
+        return channel.send(commandId, encodedCommand, timeoutMillis)
+                .whenComplete((response, error) -> received[0] = System.nanoTime())
+                .thenApplyAsync(response -> {
+                    if (response == null) {
+                        log.warn("Timeout: No response received from C++ for command ID: " + commandId);
+                        if (!UNCANCELLED_ACTIONS.contains(action)) {
+                            cancel(channel, commandId);
+                        }
+                        return null;
+                    }
+                    metrics.recordWait(action, received[0] - sent);
+                    WireCodec decoder = WireCodec.forBody(response);
+                    log.at(quiet ? Log.Level.TRACE : Log.Level.DEBUG, () -> "Java received response (ID: " + commandId + "): "
+                            + Log.payload(decoder.describe(response)));
+                    long parseStart = System.nanoTime();
+                    try {
+                        CarResponse decoded = decoder.decodeResponse(response, carList);
+                        metrics.recordParse(action, System.nanoTime() - parseStart);
+                        return decoded;
+                    } catch (IOException e) {
+                        metrics.recordMalformedResponse(action);
+                        throw new CompletionException(new MalformedResponseException(e));
+                    }
+                });
+    }
+
+    /**
+     * Asks the backend to drop a command whose caller gave up on it. The stdio and shared-memory
+     * loops read commands while they work, so one still waiting behind another is removed
+     * before it runs; one already running is finished and its late reply ignored. The file
+     * exchange handles a single command at a time, so there is never a waiting one to remove.
+     */
+    private void cancel(CarTransport channel, String commandId) {
+        if (channel instanceof FileTransport || channel != transport) {
+            return;
+        }
+        Map<String, Object> cancel = new HashMap<>();
+        cancel.put("id", UUID.randomUUID().toString());
+        cancel.put("action", "CANCEL");
+        cancel.put("targetId", commandId);
+        execute(cancel, CANCEL_TIMEOUT_MILLIS).thenAccept(response -> {
+            if (response != null && response.data instanceof Map && Boolean.TRUE.equals(((Map<?, ?>) response.data).get("cancelled"))) {
+                log.info("C++ dropped command " + commandId + " before running it.");
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        if (transport != null) {
+            transport.close();
+            transport = null;
+        }
+        if (cppProcess != null && cppProcess.isAlive()) {
+            log.info("Terminating C++ Car Manager process...");
+            stopProcess();
+        }
+    }
+
+    /** Like {@link #close} but without the grace period, for a process that is hung or gone. */
+    void kill() {
+        if (transport != null) {
+            transport.close();
+            transport = null;
+        }
+        Process process = cppProcess;
+        if (process != null) {
+            process.destroyForcibly();
+            cppProcess = null;
+        }
+    }
+
+    private void stopProcess() {
+        cppProcess.destroy(); // Request graceful termination
+        try {
+            if (!cppProcess.waitFor(5, TimeUnit.SECONDS)) { // Wait up to 5 seconds
+                log.warn("C++ process did not terminate gracefully, forcing shutdown.");
+                cppProcess.destroyForcibly(); // Force kill if not terminated
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restore interrupted status
+            log.warn("Interrupted while waiting for C++ process to terminate.");
+            cppProcess.destroyForcibly();
+        } finally {
+            cppProcess = null; // Clear the process reference
+        }
+    }
+
+    /** A response that arrived but could not be decoded; the IOException callers see for it. */
+    static final class MalformedResponseException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        MalformedResponseException(IOException cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+// src/com/carrental/FileTransport.java
+package com.carrental;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The original command.json / result.json exchange. The C++ side polls command.json and
+ * writes its answer to result.json, so this transport polls result.json until the response
+ * carrying our command id shows up. Kept as the fallback for backends without --stdio.
+ * There is only one command.json slot, so commands are queued and exchanged one at a time.
+ * result.json is only re-read when its size or timestamp moved, and the wait between checks
+ * is driven by a WatchService on the working directory rather than a fixed sleep. Both sides
+ * replace the files atomically (AtomicFiles here, AtomicFile.h in C++), so whatever is read
+ * is a complete message.
+ */
+class FileTransport implements CarTransport {
+    private static final Log log = Log.of(FileTransport.class);
+    static final String COMMAND_FILE = "command.json";
+    static final String RESULT_FILE = "result.json";
+
+    private static final long WATCH_POLL_MILLIS = 50;
+    private static final int SPIN_ROUNDS = 100;
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final File workingDirectory;
+    private final WatchService watcher;
+    private final ExecutorService exchanger = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "car-backend-file-exchanger");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    FileTransport(File workingDirectory) throws IOException {
+        this.workingDirectory = workingDirectory;
+        this.watcher = openWatcher(workingDirectory);
+        // Ensure command and result files are empty/valid JSON for the first run
+        writeJsonToFile(COMMAND_FILE, "{}");
+        writeJsonToFile(RESULT_FILE, "{}");
+    }
+
+    private static WatchService openWatcher(File directory) {
+        try {
+            WatchService service = FileSystems.getDefault().newWatchService();
+            directory.toPath().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            return service;
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("No file watcher for " + directory + ", using back-off polling. " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public CompletableFuture<byte[]> send(String commandId, byte[] command, long timeoutMillis) {
+        CompletableFuture<byte[]> response = new CompletableFuture<>();
+        try {
+            exchanger.execute(() -> {
+                try {
+                    response.complete(exchange(commandId, command, timeoutMillis));
+                } catch (IOException | RuntimeException e) {
+                    response.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            response.completeExceptionally(new IOException("File channel is closed.", e));
+        }
+        return response;
+    }
+
+    private byte[] exchange(String commandId, byte[] command, long timeoutMillis) throws IOException {
+        // Clear result file before sending new command to prevent reading stale data
+        writeJsonToFile(RESULT_FILE, "{}");
+        File resultFile = new File(workingDirectory, RESULT_FILE);
+        // Our own "{}" clear, taken before the command goes out so a fast answer cannot be mistaken for it
+        FileSignature lastRead = FileSignature.of(resultFile);
+        writeFile(COMMAND_FILE, command);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        int idleRounds = 0;
+
+        while (System.nanoTime() < deadline) {
+            FileSignature current = FileSignature.of(resultFile);
+            if (!current.equals(lastRead)) {
+                lastRead = current;
+                idleRounds = 0;
+                String resultContent = readJsonFromFile(RESULT_FILE);
+                if (!resultContent.isEmpty() && !resultContent.equals("{}")) {
+                    // Only the id is read here, skipping the payload; ExternalProcessBackend decodes the rest.
+                    // Another id is a late answer to a command that already timed out.
+                    String responseId = JsonWireCodec.peekId(resultContent);
+                    if (commandId.equals(responseId)) {
+                        // Clear command file after successful response to signal C++
+                        writeJsonToFile(COMMAND_FILE, "{}");
+                        return resultContent.getBytes(StandardCharsets.UTF_8);
+                    }
+                    if (responseId == null) {
+                        // Not a torn read, since both sides replace the file whole; an older backend may still tear it
+                        log.warn("result.json holds no response id. Waiting for the next write...");
+                    }
+                }
+            }
+            awaitResultChange(deadline, idleRounds++);
+        }
+
+        writeJsonToFile(COMMAND_FILE, "{}"); // Clear command file even on timeout
+        return null;
+    }
+
+    /**
+     * Waits until result.json may have changed. With a WatchService the OS wakes us as soon as
+     * the backend writes; the wait is capped so a missed event costs at most WATCH_POLL_MILLIS.
+     * Without one, spin briefly and then park with a growing back-off instead of a flat 100 ms.
+     */
+    private void awaitResultChange(long deadlineNanos, int idleRounds) throws IOException {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining <= 0) {
+            return;
+        }
+        try {
+            if (watcher != null) {
+                WatchKey key = watcher.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(WATCH_POLL_MILLIS)), TimeUnit.NANOSECONDS);
+                if (key != null) {
+                    key.pollEvents(); // Any event in the directory just means "look again"
+                    key.reset();
+                }
+            } else if (idleRounds < SPIN_ROUNDS) {
+                Thread.onSpinWait();
+            } else {
+                long backoff = Math.min(MIN_PARK_NANOS << Math.min(idleRounds - SPIN_ROUNDS, 10), MAX_PARK_NANOS);
+                LockSupport.parkNanos(Math.min(backoff, remaining));
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for C++ response.", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        exchanger.shutdownNow();
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException ignored) {
+                // Nothing left to release.
+            }
+        }
+    }
+
+    private void writeJsonToFile(String filename, String jsonContent) throws IOException {
+        writeFile(filename, jsonContent.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeFile(String filename, byte[] content) throws IOException {
+        AtomicFiles.write(new File(workingDirectory, filename).toPath(), content); // Use working directory
+    }
+
+    private String readJsonFromFile(String filename) throws IOException {
+        try {
+            String content = new String(Files.readAllBytes(new File(workingDirectory, filename).toPath()), StandardCharsets.UTF_8);
+            return content.isEmpty() ? "{}" : content; // Return empty JSON object if the file is empty
+        } catch (NoSuchFileException e) {
+            return "{}"; // Or if it doesn't exist
+        }
+    }
+
+    /** Cheap stand-in for "has the file changed": last-modified time plus length. */
+    private static final class FileSignature {
+        final long lastModified;
+        final long length;
+
+        private FileSignature(long lastModified, long length) {
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        static FileSignature of(File file) {
+            return new FileSignature(file.lastModified(), file.length());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FileSignature)) return false;
+            FileSignature other = (FileSignature) o;
+            return lastModified == other.lastModified && length == other.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(lastModified) * 31 + Long.hashCode(length);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+// src/com/carrental/InProcessCarBackend.java
+package com.carrental;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * Serves commands from a {@link CarCatalogEngine} inside this JVM: no process, no pipes and no
+ * encoding. Commands run one at a time on a single worker thread, in the order they were
+ * submitted, just as the C++ loop handles them, so callers still get futures and never block
+ * on a catalog save. Catalog change events are raised for the changes made through this
+ * backend; unlike the C++ process it does not watch cars_data.txt for other terminals' saves.
+ */
+class InProcessCarBackend implements CarBackend {
+    private static final Log log = Log.of(InProcessCarBackend.class);
+    private final CarCatalogEngine engine;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "car-backend-in-process");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile LongConsumer catalogListener;
+    private long lastVersion = CarResponse.NO_VERSION; // Worker thread only
+
+    InProcessCarBackend(File dataDirectory) {
+        this.engine = new CarCatalogEngine(dataDirectory);
+        log.info("In-process car catalog started (" + engine.size() + " cars, data in " + dataDirectory.getAbsolutePath() + ").");
+    }
+
+    /**
+     * A command whose timeout passes while it is still queued is skipped when its turn comes,
+     * like one the C++ loop drops on CANCEL; one already running is finished.
+     */
+    @Override
+    public CompletableFuture<CarResponse> execute(Map<String, Object> command, long timeoutMillis) {
+        String action = String.valueOf(command.get("action"));
+        long submitted = System.nanoTime();
+        CompletableFuture<CarResponse> result = new CompletableFuture<>();
+        try {
+            worker.execute(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                try {
+                    CarResponse response = engine.handle(command);
+                    CarServiceMetrics.INSTANCE.recordWait(action, System.nanoTime() - submitted); // Queueing included
+                    result.complete(response);
+                    announceChange(response.version);
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new IOException("In-process car catalog is shut down.", e));
+        }
+        return result.completeOnTimeout(null, timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void announceChange(long version) {
+        boolean changed = lastVersion != CarResponse.NO_VERSION && version != lastVersion;
+        lastVersion = version;
+        LongConsumer listener = catalogListener;
+        if (changed && listener != null) {
+            listener.accept(version);
+        }
+    }
+
+    @Override
+    public void onCatalogChanged(LongConsumer listener) {
+        catalogListener = listener;
+    }
+
+    @Override
+    public String name() {
+        return "in-process";
+    }
+
+    @Override
+    public void close() {
+        worker.shutdown();
+        try {
+            worker.awaitTermination(5, TimeUnit.SECONDS); // Let a queued save finish
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+// src/com/carrental/JsonWireCodec.java
+package com.carrental;
+
+import com.carrental.model.Car;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JSON on the wire: what the file channel always uses and what --stdio falls back to.
+ * Responses are decoded in one streaming pass: the envelope fields are read off a JsonReader
+ * and, for car-list commands, each element of "data" goes straight through CarTypeAdapter.
+ */
+final class JsonWireCodec implements WireCodec {
+    static final JsonWireCodec INSTANCE = new JsonWireCodec();
+
+    private final Gson gson = new GsonBuilder() // No pretty printing: nobody reads the wire but the backend
+            .registerTypeAdapter(Car.class, CarTypeAdapter.INSTANCE)
+            .create();
+    private final TypeAdapter<Object> genericAdapter = gson.getAdapter(Object.class);
+
+    private JsonWireCodec() {
+    }
+
+    @Override
+    public String name() {
+        return "json";
+    }
+
+    @Override
+    public byte[] encodeCommand(Map<String, Object> command) {
+        return gson.toJson(command).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public CarResponse decodeResponse(byte[] body, boolean carList) throws IOException {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+            String id = null, status = null, message = null;
+            Object data = null;
+            List<Car> cars = null;
+            long version = CarResponse.NO_VERSION;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String field = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.nextNull();
+                    continue;
+                }
+                switch (field) {
+                    case "id": id = reader.nextString(); break;
+                    case "status": status = reader.nextString(); break;
+                    case "message": message = reader.nextString(); break;
+                    case "version": version = reader.nextLong(); break;
+                    case "data":
+                        if (carList && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                            cars = readCars(reader);
+                            data = cars;
+                        } else {
+                            data = genericAdapter.read(reader);
+                        }
+                        break;
+                    default: reader.skipValue(); break;
+                }
+            }
+            reader.endObject();
+            return new CarResponse(id, status, message, data, cars, version);
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new IOException("Malformed JSON response: " + e.getMessage(), e);
+        }
+    }
+
+    /** Backend side of the exchange, used by BackendSimulator: a command as a generic map. */
+    @SuppressWarnings("unchecked")
+    Map<String, Object> decodeCommand(byte[] body) throws IOException {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+            Object command = genericAdapter.read(reader);
+            if (!(command instanceof Map)) {
+                throw new IOException("Command is not a JSON object.");
+            }
+            return (Map<String, Object>) command;
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new IOException("Malformed JSON command: " + e.getMessage(), e);
+        }
+    }
+
+    /** Backend side of the exchange: the response envelope the C++ handlers produce. */
+    byte[] encodeResponse(CarResponse response) {
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("id", response.id);
+        envelope.put("status", response.status);
+        if (response.message != null) {
+            envelope.put("message", response.message);
+        }
+        if (response.data != null) {
+            envelope.put("data", response.data);
+        }
+        if (response.version != CarResponse.NO_VERSION) {
+            envelope.put("version", response.version);
+        }
+        return gson.toJson(envelope).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<Car> readCars(JsonReader reader) throws IOException {
+        List<Car> cars = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            cars.add(CarTypeAdapter.INSTANCE.read(reader));
+        }
+        reader.endArray();
+        return cars;
+    }
+
+    /**
+     * Reads only the top-level "id" of a response, skipping everything else without building it.
+     * Returns null if the text is not (yet) a complete JSON object.
+     */
+    static String peekId(String json) {
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            String id = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("id".equals(reader.nextName()) && reader.peek() == JsonToken.STRING) {
+                    id = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return id;
+        } catch (IOException | IllegalStateException | JsonParseException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String describe(byte[] body) {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,202 @@
+// src/com/carrental/Log.java
+package com.carrental;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * The app's log. Each class keeps one {@code Log} named after it; a line carries the time,
+ * level, thread and that name. A call below the configured level costs one comparison, and
+ * the Supplier forms do not even build their message then. Enabled lines go into a bounded
+ * ring buffer and a daemon thread writes them out in batches, so the EDT and the backend
+ * threads never wait on the console; if the buffer fills, lines are dropped and counted.
+ * ERROR and WARN go to stderr, the rest to stdout.
+ *
+ * Configured with system properties: carrental.log.level (ERROR, WARN, INFO, DEBUG or TRACE;
+ * default INFO) and carrental.log.payload, the characters of a wire payload kept by
+ * {@link #payload} (default 512; 0 keeps all).
+ */
+final class Log {
+    enum Level { ERROR, WARN, INFO, DEBUG, TRACE }
+
+    private static final Level LEVEL = parseLevel(System.getProperty("carrental.log.level", "INFO"));
+    private static final int PAYLOAD_CHARS = Integer.getInteger("carrental.log.payload", 512);
+    private static final int RING_CAPACITY = 8192;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS", Locale.ROOT);
+
+    private static final Ring ring = new Ring(RING_CAPACITY);
+    // Held while lines are taken from the ring and written, so flush() and the writer keep them in order
+    private static final Object output = new Object();
+
+    static {
+        Thread writer = new Thread(Log::writeLoop, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "log-flush"));
+    }
+
+    private final String name;
+
+    private Log(String name) {
+        this.name = name;
+    }
+
+    static Log of(Class<?> owner) {
+        return new Log(owner.getSimpleName());
+    }
+
+    static boolean isEnabled(Level level) {
+        return level.compareTo(LEVEL) <= 0;
+    }
+
+    void error(String message) { log(Level.ERROR, message, null); }
+    void error(String message, Throwable error) { log(Level.ERROR, message, error); }
+    void warn(String message) { log(Level.WARN, message, null); }
+    void info(String message) { log(Level.INFO, message, null); }
+    void debug(String message) { log(Level.DEBUG, message, null); }
+
+    void info(Supplier<String> message) { at(Level.INFO, message); }
+    void debug(Supplier<String> message) { at(Level.DEBUG, message); }
+    void trace(Supplier<String> message) { at(Level.TRACE, message); }
+
+    /** For a level picked at run time; the message is only built if that level is enabled. */
+    void at(Level level, Supplier<String> message) {
+        if (isEnabled(level)) {
+            log(level, message.get(), null);
+        }
+    }
+
+    private void log(Level level, String message, Throwable error) {
+        if (isEnabled(level)) {
+            ring.offer(new Entry(System.currentTimeMillis(), level, Thread.currentThread().getName(), name, message, error));
+        }
+    }
+
+    /** A wire payload shortened to carrental.log.payload characters, noting how long it was. */
+    static String payload(String text) {
+        if (PAYLOAD_CHARS <= 0 || text.length() <= PAYLOAD_CHARS) {
+            return text;
+        }
+        return text.substring(0, PAYLOAD_CHARS) + "... (" + text.length() + " chars)";
+    }
+
+    /** Writes out everything logged so far on the calling thread; used at shutdown. */
+    static void flush() {
+        List<Entry> batch = new ArrayList<>();
+        synchronized (output) {
+            write(batch, ring.drainTo(batch));
+        }
+    }
+
+    private static void writeLoop() {
+        List<Entry> batch = new ArrayList<>();
+        while (true) {
+            try {
+                ring.awaitEntries();
+            } catch (InterruptedException e) {
+                return;
+            }
+            synchronized (output) {
+                write(batch, ring.drainTo(batch));
+            }
+            batch.clear();
+        }
+    }
+
+    private static void write(List<Entry> batch, long dropped) {
+        PrintStream out = System.out; // Looked up each time: BackendSimulator reroutes stdout to stderr
+        PrintStream err = System.err;
+        if (dropped > 0) {
+            err.println(dropped + " log lines dropped; the log buffer was full.");
+        }
+        for (Entry entry : batch) {
+            PrintStream stream = entry.level.compareTo(Level.WARN) <= 0 ? err : out;
+            stream.println(entry.format());
+            if (entry.error != null) {
+                entry.error.printStackTrace(stream);
+            }
+        }
+        out.flush();
+        err.flush();
+    }
+
+    private static Level parseLevel(String text) {
+        try {
+            return Level.valueOf(text.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown carrental.log.level '" + text + "'; using INFO.");
+            return Level.INFO;
+        }
+    }
+
+    private static final class Entry {
+        final long millis;
+        final Level level;
+        final String thread;
+        final String logger;
+        final String message;
+        final Throwable error;
+
+        Entry(long millis, Level level, String thread, String logger, String message, Throwable error) {
+            this.millis = millis;
+            this.level = level;
+            this.thread = thread;
+            this.logger = logger;
+            this.message = message;
+            this.error = error;
+        }
+
+        String format() {
+            String time = TIME.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()));
+            return String.format("%s %-5s [%s] %s: %s", time, level, thread, logger, message);
+        }
+    }
+
+    /** Fixed-size circular buffer of pending lines; offering to a full one drops the line. */
+    private static final class Ring {
+        private final Entry[] slots;
+        private int head;
+        private int size;
+        private long dropped;
+
+        Ring(int capacity) {
+            slots = new Entry[capacity];
+        }
+
+        synchronized void offer(Entry entry) {
+            if (size == slots.length) {
+                dropped++;
+                return;
+            }
+            slots[(head + size) % slots.length] = entry;
+            if (size++ == 0) {
+                notifyAll();
+            }
+        }
+
+        synchronized void awaitEntries() throws InterruptedException {
+            while (size == 0 && dropped == 0) {
+                wait();
+            }
+        }
+
+        /** Moves every pending line into the list; returns how many were dropped since the last drain. */
+        synchronized long drainTo(List<Entry> batch) {
+            for (; size > 0; size--) {
+                batch.add(slots[head]);
+                slots[head] = null;
+                head = (head + 1) % slots.length;
+            }
+            long lost = dropped;
+            dropped = 0;
+            return lost;
+        }
+    }
+}
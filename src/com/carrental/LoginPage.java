@@ -28,6 +28,7 @@ import java.awt.image.BufferedImage;
 import java.net.URL;
 
 public class LoginPage extends JFrame {
+    private static final Log log = Log.of(LoginPage.class);
 
     private JFrame frame;
     private JTextField usernameField;
@@ -52,6 +53,8 @@ public class LoginPage extends JFrame {
 
     public static List<User> users = new ArrayList<>();
     public static List<Car> allCars = new ArrayList<>();
+    // Keeps allCars current by applying only what changed in the backend since the last refresh.
+    static final CatalogSync catalogSync = new CatalogSync(allCars);
 
     public static User loggedInUser = null;
     public static String loggedInUserRole = null;
@@ -110,10 +113,10 @@ public class LoginPage extends JFrame {
             if (bgUrl != null) {
                 backgroundImage = ImageIO.read(bgUrl);
             } else {
-                System.err.println("LoginPage: Error: Background image '/Images/R.jpg' not found on classpath.");
+                log.warn("Background image '/Images/R.jpg' not found on classpath.");
             }
         } catch (IOException e) {
-            System.err.println("LoginPage: Exception loading background image from URL: " + e.getMessage());
+            log.error("Exception loading background image from URL: " + e.getMessage());
         }
 
         try {
@@ -122,10 +125,10 @@ public class LoginPage extends JFrame {
                 appIcon = new ImageIcon(iconUrl);
                 frame.setIconImage(appIcon.getImage());
             } else {
-                System.err.println("LoginPage: Error: Icon image '/Images/car_icon.png' not found on classpath.");
+                log.warn("Icon image '/Images/car_icon.png' not found on classpath.");
             }
         } catch (Exception e) {
-            System.err.println("LoginPage: Exception loading app icon: " + e.getMessage());
+            log.error("Exception loading app icon: " + e.getMessage());
         }
 
         JPanel rootPanel = new JPanel(new BorderLayout()) {
@@ -364,6 +367,10 @@ public class LoginPage extends JFrame {
 
     // Removed showLoadingDialogAndFetchCars method
 
+    /**
+     * The synced car list. No IPC: CarChangeFeed fetches changes in the background and applies
+     * them on the EDT, so read the list there too.
+     */
     public static List<Car> getCars() {
         return allCars;
     }
@@ -393,7 +400,7 @@ public class LoginPage extends JFrame {
         try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(USER_DATA_FILE))) {
             oos.writeObject(new ArrayList<>(usersList));
         } catch (IOException e) {
-            System.err.println("Error saving users: " + e.getMessage());
+            log.error("Error saving users: " + e.getMessage());
         }
     }
 
@@ -404,7 +411,7 @@ public class LoginPage extends JFrame {
             try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(USER_DATA_FILE))) {
                 return (List<User>) ois.readObject();
             } catch (IOException | ClassNotFoundException e) {
-                System.err.println("Error loading users: " + e.getMessage());
+                log.error("Error loading users: " + e.getMessage());
             }
         }
         return new ArrayList<>();
@@ -718,11 +725,12 @@ public class LoginPage extends JFrame {
             UIManager.put("ComboBox.selectionForeground", THEME_TEXT_ACCENT);
 
         } catch (Exception e) {
-            System.err.println("LoginPage: Nimbus Look and Feel not available. Using default. " + e.getMessage());
+            log.warn("Nimbus Look and Feel not available. Using default. " + e.getMessage());
         }
 
         CarService.initialize();
-        LoginPage.allCars = CarService.getAllCars();
+        catalogSync.refresh(); // First refresh loads the whole catalog
+        CarService.useLocalCatalog(catalogSync);
         Runtime.getRuntime().addShutdownHook(new Thread(CarService::shutdown));
 
         SwingUtilities.invokeLater(LoginPage::new);
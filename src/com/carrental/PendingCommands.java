@@ -0,0 +1,87 @@
+// src/com/carrental/PendingCommands.java
+package com.carrental;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The in-flight table shared by the multiplexing transports: command id to the future waiting
+ * for its response. Once the channel fails every pending and future command fails with it.
+ * Records under {@link #EVENT_ID} answer no command; they are handed to the event listener.
+ */
+class PendingCommands {
+    /** Id the C++ backend gives the records it sends unasked (CATALOG_CHANGED). */
+    static final String EVENT_ID = "event";
+
+    private static final Log log = Log.of(PendingCommands.class);
+    private final String channelName;
+    private final Map<String, CompletableFuture<byte[]>> pending = new ConcurrentHashMap<>();
+    private volatile IOException failure;
+    private volatile Consumer<byte[]> eventListener;
+
+    PendingCommands(String channelName) {
+        this.channelName = channelName;
+    }
+
+    /**
+     * Registers a command about to be written. The returned future completes with null after
+     * timeoutMillis; either way the entry is dropped so a late answer is discarded.
+     */
+    CompletableFuture<byte[]> register(String commandId, long timeoutMillis) {
+        CompletableFuture<byte[]> response = new CompletableFuture<>();
+        if (failure != null) {
+            response.completeExceptionally(closedException());
+            return response;
+        }
+        pending.put(commandId, response);
+        if (failure != null) { // The channel died between the check above and the put.
+            response.completeExceptionally(closedException());
+            return response;
+        }
+        response.completeOnTimeout(null, timeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((bytes, error) -> pending.remove(commandId, response));
+        return response;
+    }
+
+    void onEvent(Consumer<byte[]> listener) {
+        eventListener = listener;
+    }
+
+    /** Hands a response to whoever is waiting for it. */
+    void complete(String commandId, byte[] body) {
+        if (EVENT_ID.equals(commandId)) {
+            Consumer<byte[]> listener = eventListener;
+            if (listener != null) {
+                listener.accept(body);
+            }
+            return;
+        }
+        CompletableFuture<byte[]> response = pending.remove(commandId);
+        if (response != null) {
+            response.complete(body);
+        } else {
+            // A late answer to a command that already timed out; drop it.
+            log.warn("Discarding stale C++ response for command ID: " + commandId);
+        }
+    }
+
+    void failAll(IOException cause) {
+        failure = cause;
+        for (CompletableFuture<byte[]> response : pending.values()) {
+            response.completeExceptionally(cause);
+        }
+        pending.clear();
+    }
+
+    boolean isFailed() {
+        return failure != null;
+    }
+
+    private IOException closedException() {
+        return new IOException("C++ " + channelName + " channel closed.", failure);
+    }
+}
@@ -0,0 +1,120 @@
+// src/com/carrental/PipeTransport.java
+package com.carrental;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Talks to a backend started with --stdio over its stdin/stdout pipes, which stay open for
+ * the life of the process. Each message is one frame:
+ *
+ * <pre>
+ *   int32 length   (big-endian, counts everything after this field)
+ *   uint8 idLength
+ *   byte[idLength] command id (ASCII)
+ *   byte[]         body
+ * </pre>
+ *
+ * Carrying the id in the frame header lets the reader match responses without parsing the body.
+ * Any number of commands may be in flight; a single reader thread completes each pending
+ * future as its response arrives, in whatever order the backend answers.
+ */
+class PipeTransport implements CarTransport {
+    static final int MAX_FRAME_LENGTH = 64 * 1024 * 1024;
+
+    private final DataOutputStream out;
+    private final DataInputStream in;
+    private final PendingCommands pending = new PendingCommands("stdio");
+    private final Thread readerThread;
+
+    PipeTransport(Process process) {
+        this.out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        this.in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        this.readerThread = new Thread(this::readLoop, "car-backend-stdio-reader");
+        this.readerThread.setDaemon(true);
+        this.readerThread.start();
+    }
+
+    @Override
+    public void onEvent(Consumer<byte[]> listener) {
+        pending.onEvent(listener);
+    }
+
+    @Override
+    public String name() {
+        return "stdio";
+    }
+
+    @Override
+    public CompletableFuture<byte[]> send(String commandId, byte[] command, long timeoutMillis) {
+        CompletableFuture<byte[]> response = pending.register(commandId, timeoutMillis);
+        if (response.isDone()) {
+            return response;
+        }
+        try {
+            writeFrame(commandId, command);
+        } catch (IOException e) {
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
+    @Override
+    public void close() {
+        readerThread.interrupt();
+        try {
+            synchronized (out) {
+                out.close();
+            }
+        } catch (IOException ignored) {
+            // The process may already be gone.
+        }
+        pending.failAll(new IOException("C++ stdio channel closed."));
+    }
+
+    private void writeFrame(String commandId, byte[] body) throws IOException {
+        byte[] id = commandId.getBytes(StandardCharsets.US_ASCII);
+        if (id.length > 255) {
+            throw new IOException("Command id too long for stdio frame: " + commandId);
+        }
+        synchronized (out) {
+            out.writeInt(1 + id.length + body.length);
+            out.writeByte(id.length);
+            out.write(id);
+            out.write(body);
+            out.flush();
+        }
+    }
+
+    private void readLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                int length = in.readInt();
+                if (length < 1 || length > MAX_FRAME_LENGTH) {
+                    throw new IOException("Invalid stdio frame length " + length + " (backend not in --stdio mode?)");
+                }
+                int idLength = in.readUnsignedByte();
+                if (idLength > length - 1) {
+                    throw new IOException("Invalid stdio frame id length " + idLength);
+                }
+                byte[] id = new byte[idLength];
+                in.readFully(id);
+                byte[] body = new byte[length - 1 - idLength];
+                in.readFully(body);
+
+                pending.complete(new String(id, StandardCharsets.US_ASCII), body);
+            }
+        } catch (EOFException e) {
+            pending.failAll(new IOException("C++ backend closed its stdout.", e));
+        } catch (IOException e) {
+            pending.failAll(e);
+        }
+    }
+}
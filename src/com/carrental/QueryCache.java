@@ -0,0 +1,99 @@
+// src/com/carrental/QueryCache.java
+package com.carrental;
+
+import com.carrental.model.Car;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of car-list query results, each tagged with the catalog version the
+ * backend reported when it answered. An entry is only served while that version is still the
+ * newest one seen on any response, so a change made anywhere makes every older entry a miss.
+ * While one of our own writes is in flight nothing is served or stored, since its new version
+ * is not known yet. Backends that report no version are never cached.
+ */
+class QueryCache {
+    private final int maxEntries;
+    private final Map<String, CachedResult> entries;
+    private long currentVersion = CarResponse.NO_VERSION;
+    private int writesInFlight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    QueryCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<String, CachedResult>(16, 0.75f, true) { // Access order: eldest is least recently used
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                if (size() > QueryCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** The cached result for key if it is still current, else null. Callers must copy it. */
+    synchronized List<Car> get(String key) {
+        CachedResult entry = writesInFlight == 0 ? entries.get(key) : null;
+        if (entry != null && entry.version == currentVersion) {
+            hits++;
+            return entry.cars;
+        }
+        if (entry != null) {
+            entries.remove(key); // Stale
+        }
+        misses++;
+        return null;
+    }
+
+    synchronized void put(String key, long version, List<Car> cars) {
+        observeVersion(version);
+        if (maxEntries > 0 && writesInFlight == 0 && version != CarResponse.NO_VERSION && version == currentVersion) {
+            entries.put(key, new CachedResult(version, cars));
+        }
+    }
+
+    /** Records the catalog version carried by any response, reads and writes alike. */
+    synchronized void observeVersion(long version) {
+        if (version > currentVersion) {
+            currentVersion = version;
+            entries.clear(); // Every entry is older than this now
+        }
+    }
+
+    /** The newest catalog version seen, or NO_VERSION while one of our writes is in flight. */
+    synchronized long settledVersion() {
+        return writesInFlight == 0 ? currentVersion : CarResponse.NO_VERSION;
+    }
+
+    synchronized void writeStarted() {
+        writesInFlight++;
+        entries.clear();
+    }
+
+    /** Called once the write has answered (or failed); its version has been observed by then. */
+    synchronized void writeFinished() {
+        writesInFlight--;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "query cache: " + entries.size() + "/" + maxEntries + " entries, " + hits + " hits, " + misses + " misses, "
+                + evictions + " evictions, catalog version " + currentVersion;
+    }
+
+    private static final class CachedResult {
+        final long version;
+        final List<Car> cars;
+
+        CachedResult(long version, List<Car> cars) {
+            this.version = version;
+            this.cars = cars;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+// src/com/carrental/SharedMemoryTransport.java
+package com.carrental;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Exchanges commands through a memory-mapped file shared with a backend started with
+ * --shm &lt;file&gt;. Nothing is opened, closed or renamed per command: each side writes
+ * fixed-size slot records into a ring and publishes them by storing the slot's sequence number.
+ *
+ * <pre>
+ *   header (64 bytes, little-endian)
+ *     0  int32 magic 'CRRB'      8  int32 slotCount     16 int64 requestConsumed
+ *     4  int32 version          12  int32 slotSize      24 int64 responseConsumed
+ *                                                       32 int32 closed
+ *   request ring   slotCount * slotSize   (Java writes, backend reads)
+ *   response ring  slotCount * slotSize   (backend writes, Java reads)
+ *
+ *   slot: int64 sequence (n + 1 once record n is published), int32 length, int32 flags, payload
+ * </pre>
+ *
+ * A message is the stdio frame minus its length prefix (uint8 idLength, id, body). Messages
+ * larger than one slot continue in the following slots; the last one carries FLAG_LAST.
+ * src/cpp/SharedRing.cpp is the other half of this layout.
+ */
+class SharedMemoryTransport implements CarTransport {
+    static final String RING_FILE = "ipc_ring.dat";
+
+    private static final int MAGIC = 0x43525242; // "CRRB"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_HEADER_SIZE = 16;
+    private static final int SLOT_COUNT = 64;
+    private static final int SLOT_SIZE = 64 * 1024;
+    private static final int FLAG_LAST = 1;
+
+    private static final int OFFSET_REQUEST_CONSUMED = 16;
+    private static final int OFFSET_RESPONSE_CONSUMED = 24;
+    private static final int OFFSET_CLOSED = 32;
+
+    private static final int SPIN_ROUNDS = 200;
+    private static final long MAX_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final long SLOT_WAIT_HEADROOM_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final MappedByteBuffer buffer;
+    private final int requestRing;
+    private final int responseRing;
+    private final PendingCommands pending = new PendingCommands("shared-memory");
+    private final Object writeLock = new Object();
+    private final Thread readerThread;
+    private Process process;
+    private long nextRequest;   // guarded by writeLock
+    private long nextResponse;  // reader thread only
+
+    /** Creates and initialises the ring file; start the backend on it afterwards with {@link #attach}. */
+    SharedMemoryTransport(File workingDirectory) throws IOException {
+        File ringFile = new File(workingDirectory, RING_FILE);
+        long ringBytes = (long) SLOT_COUNT * SLOT_SIZE;
+        try (RandomAccessFile file = new RandomAccessFile(ringFile, "rw");
+             FileChannel channel = file.getChannel()) {
+            file.setLength(0); // Drop any records left over from a previous run
+            file.setLength(HEADER_SIZE + 2 * ringBytes);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + 2 * ringBytes);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.requestRing = HEADER_SIZE;
+        this.responseRing = (int) (HEADER_SIZE + ringBytes);
+
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, SLOT_COUNT);
+        buffer.putInt(12, SLOT_SIZE);
+        INTS.setRelease(buffer, 0, MAGIC); // Written last: the backend waits for it
+
+        this.readerThread = new Thread(this::readLoop, "car-backend-shm-reader");
+        this.readerThread.setDaemon(true);
+    }
+
+    /** Starts reading responses; the process is watched so a dead backend fails pending commands. */
+    void attach(Process process) {
+        this.process = process;
+        readerThread.start();
+    }
+
+    @Override
+    public void onEvent(Consumer<byte[]> listener) {
+        pending.onEvent(listener);
+    }
+
+    @Override
+    public String name() {
+        return "shm";
+    }
+
+    @Override
+    public CompletableFuture<byte[]> send(String commandId, byte[] command, long timeoutMillis) {
+        // The slot wait gives up just ahead of the response timeout, so the command fails with why
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) - SLOT_WAIT_HEADROOM_NANOS;
+        CompletableFuture<byte[]> response = pending.register(commandId, timeoutMillis);
+        if (response.isDone()) {
+            return response;
+        }
+        byte[] id = commandId.getBytes(StandardCharsets.US_ASCII);
+        if (id.length > 255) {
+            response.completeExceptionally(new IOException("Command id too long for shared-memory record: " + commandId));
+            return response;
+        }
+        byte[] message = new byte[1 + id.length + command.length];
+        message[0] = (byte) id.length;
+        System.arraycopy(id, 0, message, 1, id.length);
+        System.arraycopy(command, 0, message, 1 + id.length, command.length);
+        try {
+            synchronized (writeLock) {
+                writeMessage(message, deadline);
+            }
+        } catch (IOException e) {
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
+    @Override
+    public void close() {
+        INTS.setRelease(buffer, OFFSET_CLOSED, 1);
+        readerThread.interrupt();
+        pending.failAll(new IOException("C++ shared-memory channel closed."));
+    }
+
+    /**
+     * Writes message into the request ring, waiting for free slots until deadline (System.nanoTime).
+     * A hung backend that stops taking slots fails the command at its deadline instead of holding
+     * writeLock for good; if part of the message was already published the ring can no longer be
+     * framed, so the whole channel is failed.
+     */
+    private void writeMessage(byte[] message, long deadline) throws IOException {
+        int capacity = SLOT_SIZE - SLOT_HEADER_SIZE;
+        int total = message.length;
+        int written = 0;
+        while (written < total) {
+            long sequence = nextRequest;
+            // Wait for the backend to free the slot we are about to reuse.
+            int idleRounds = 0;
+            while (sequence - (long) LONGS.getAcquire(buffer, OFFSET_REQUEST_CONSUMED) >= SLOT_COUNT) {
+                if (pending.isFailed() || Thread.currentThread().isInterrupted()) {
+                    throw new IOException("C++ shared-memory channel closed while writing.");
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    IOException timedOut = new IOException("C++ backend took no shared-memory request slot before the command timed out.");
+                    if (written > 0) {
+                        pending.failAll(timedOut); // The backend holds part of a message; nothing after it would frame
+                    }
+                    throw timedOut;
+                }
+                idle(idleRounds++);
+            }
+
+            int slot = slotOffset(requestRing, sequence);
+            int chunk = Math.min(capacity, total - written);
+            buffer.duplicate().position(slot + SLOT_HEADER_SIZE).put(message, written, chunk); // A view, so the shared position stays put
+            written += chunk;
+            buffer.putInt(slot + 8, chunk);
+            buffer.putInt(slot + 12, written == total ? FLAG_LAST : 0);
+            LONGS.setRelease(buffer, slot, sequence + 1); // Publish
+            nextRequest = sequence + 1;
+        }
+    }
+
+    private void readLoop() {
+        byte[] message = new byte[SLOT_SIZE];
+        int length = 0;
+        int idleRounds = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            int slot = slotOffset(responseRing, nextResponse);
+            if ((long) LONGS.getAcquire(buffer, slot) != nextResponse + 1) {
+                if (process != null && !process.isAlive()) {
+                    pending.failAll(new IOException("C++ backend exited (code " + process.exitValue() + ")."));
+                    return;
+                }
+                idle(idleRounds++);
+                continue;
+            }
+            idleRounds = 0;
+
+            int chunk = buffer.getInt(slot + 8);
+            int flags = buffer.getInt(slot + 12);
+            if (length + chunk > message.length) {
+                byte[] grown = new byte[Math.max(message.length * 2, length + chunk)];
+                System.arraycopy(message, 0, grown, 0, length);
+                message = grown;
+            }
+            buffer.duplicate().position(slot + SLOT_HEADER_SIZE).get(message, length, chunk);
+            length += chunk;
+            nextResponse++;
+            LONGS.setRelease(buffer, OFFSET_RESPONSE_CONSUMED, nextResponse); // Hand the slot back
+
+            if ((flags & FLAG_LAST) != 0) {
+                int idLength = message[0] & 0xFF;
+                String commandId = new String(message, 1, idLength, StandardCharsets.US_ASCII);
+                byte[] body = new byte[length - 1 - idLength];
+                System.arraycopy(message, 1 + idLength, body, 0, body.length);
+                pending.complete(commandId, body);
+                length = 0;
+            }
+        }
+    }
+
+    private static int slotOffset(int ring, long sequence) {
+        return ring + (int) (sequence % SLOT_COUNT) * SLOT_SIZE;
+    }
+
+    /** Spin first (answers usually arrive within microseconds), then park with a short cap. */
+    private static void idle(int idleRounds) {
+        if (idleRounds < SPIN_ROUNDS) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(Math.min(1000L << Math.min(idleRounds - SPIN_ROUNDS, 8), MAX_PARK_NANOS));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+// src/com/carrental/WireCodec.java
+package com.carrental;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * How commands and responses are encoded on a CarTransport. JSON is always understood; the
+ * compact binary form is negotiated in the HELLO handshake. The backend answers every command
+ * in the encoding it arrived in, so a response can be decoded by looking at its first byte.
+ */
+interface WireCodec {
+
+    String name();
+
+    byte[] encodeCommand(Map<String, Object> command);
+
+    /**
+     * Decodes a response envelope. carList tells a codec that cannot recognise car records on
+     * its own that the data payload is a list of cars (GET_ALL_CARS, SEARCH/FILTER/SORT_CARS).
+     */
+    CarResponse decodeResponse(byte[] body, boolean carList) throws IOException;
+
+    /** Human-readable form for log lines. */
+    String describe(byte[] body);
+
+    static WireCodec forBody(byte[] body) {
+        return CompactWireCodec.isCompact(body) ? CompactWireCodec.INSTANCE : JsonWireCodec.INSTANCE;
+    }
+}
@@ -6,6 +6,7 @@ import java.awt.image.BufferedImage; // Assuming you might load image from path
 import javax.imageio.ImageIO;
 import java.io.File;
 import java.io.IOException;
+import java.io.ObjectInputStream;
 
 public class Car implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -22,6 +23,13 @@ public class Car implements Serializable {
     public double price;
     public String releaseDate;
 
+    // Numbers read once from the mileage, maxSpeed and seats text whenever it is set, so sorts
+    // and filters compare primitives instead of parsing strings per comparison. Not part of the
+    // JSON, the wire or the data files; the C++ Car parses the same way (Car::parseSpecs).
+    private transient int seatCount;
+    private transient double maxSpeedKmh;
+    private transient double mileageKmpl;
+
     public Car(String name, boolean available, String type, double rating, String imagePath, String mileage, String maxSpeed, String seats, String transmission, String vehicleClass, double price, String releaseDate) {
         this.name = name;
         this.available = available;
@@ -35,6 +43,7 @@ public class Car implements Serializable {
         this.vehicleClass = vehicleClass;
         this.price = price;
         this.releaseDate = releaseDate;
+        parseSpecs();
     }
 
     // Getters and Setters (as in your original LoginPage.Car)
@@ -49,11 +58,11 @@ public class Car implements Serializable {
     public String getImagePath() { return imagePath; }
     public void setImagePath(String imagePath) { this.imagePath = imagePath; }
     public String getMileage() { return mileage; }
-    public void setMileage(String mileage) { this.mileage = mileage; }
+    public void setMileage(String mileage) { this.mileage = mileage; mileageKmpl = parseMileageKmpl(mileage); }
     public String getMaxSpeed() { return maxSpeed; }
-    public void setMaxSpeed(String maxSpeed) { this.maxSpeed = maxSpeed; }
+    public void setMaxSpeed(String maxSpeed) { this.maxSpeed = maxSpeed; maxSpeedKmh = parseMaxSpeedKmh(maxSpeed); }
     public String getSeats() { return seats; }
-    public void setSeats(String seats) { this.seats = seats; }
+    public void setSeats(String seats) { this.seats = seats; seatCount = parseSeatCount(seats); }
     public String getTransmission() { return transmission; }
     public void setTransmission(String transmission) { this.transmission = transmission; }
     public String getVehicleClass() { return vehicleClass; }
@@ -64,4 +73,79 @@ public class Car implements Serializable {
     public void setReleaseDate(String releaseDate) { this.releaseDate = releaseDate; }
 
     public String getAvailabilityString() { return available ? "Yes" : "No"; }
+
+    /** Seats as a number ("5", "5 seats"), or 0 if the text does not start with one. */
+    public int getSeatCount() { return seatCount; }
+    /** Top speed in km/h ("180 km/h", "180"), or 0 if it is not given in km/h. */
+    public double getMaxSpeedKmh() { return maxSpeedKmh; }
+    /** Fuel economy in km/l ("12 km/l", "12"), or 0 if it is not given that way (e.g. "400 km range"). */
+    public double getMileageKmpl() { return mileageKmpl; }
+
+    private void parseSpecs() {
+        seatCount = parseSeatCount(seats);
+        maxSpeedKmh = parseMaxSpeedKmh(maxSpeed);
+        mileageKmpl = parseMileageKmpl(mileage);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        parseSpecs(); // Transient fields come back as zero
+    }
+
+    private static int parseSeatCount(String text) {
+        int end = numberEnd(text);
+        double value = end == 0 ? 0 : Double.parseDouble(text.substring(leadingSpace(text), end));
+        return (int) value;
+    }
+
+    private static double parseMaxSpeedKmh(String text) {
+        return valueIn(text, "km/h");
+    }
+
+    private static double parseMileageKmpl(String text) {
+        return valueIn(text, "km/l");
+    }
+
+    /** The leading number if the rest of the text is empty or the given unit, else 0. */
+    private static double valueIn(String text, String unit) {
+        int end = numberEnd(text);
+        if (end == 0) {
+            return 0;
+        }
+        String rest = text.substring(end).trim();
+        if (!rest.isEmpty() && !rest.equalsIgnoreCase(unit)) {
+            return 0;
+        }
+        return Double.parseDouble(text.substring(leadingSpace(text), end));
+    }
+
+    private static int leadingSpace(String text) {
+        int i = 0;
+        while (i < text.length() && text.charAt(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    /** End of the digits (with at most one decimal point) after any leading spaces; 0 if there are none. */
+    private static int numberEnd(String text) {
+        if (text == null) {
+            return 0;
+        }
+        int start = leadingSpace(text);
+        int i = start;
+        boolean digits = false;
+        boolean point = false;
+        for (; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        return digits ? i : 0;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+// src/cpp/AtomicFile.h
+#ifndef ATOMIC_FILE_H
+#define ATOMIC_FILE_H
+
+#include <chrono>
+#include <filesystem>
+#include <fstream>
+#include <string>
+#include <system_error>
+#include <thread>
+
+// Whole-file writes that a reader in another process never sees half done (see
+// AtomicFiles.java for the Java half): the content goes to a temporary file next to the
+// target, which is then renamed over it. A rename within one directory replaces the file in
+// one step, so a reader opens either the old file or the new one.
+//
+// Returns false, leaving the target untouched, if the temporary file cannot be written or
+// the rename keeps failing. On Windows a replace fails while another process has the target
+// open; Java lets go of it quickly, so the rename is retried for a short while.
+inline bool writeFileAtomically(const std::string& filename, const std::string& content) {
+    const int renameAttempts = 50;
+    std::string temp = filename + ".cpp.tmp";
+    {
+        std::ofstream file(temp, std::ios::trunc);
+        if (!file.is_open()) return false;
+        file << content;
+        file.flush();
+        if (!file) {
+            file.close();
+            std::error_code ignored;
+            std::filesystem::remove(temp, ignored);
+            return false;
+        }
+    }
+    std::error_code ec;
+    for (int attempt = 0; attempt < renameAttempts; ++attempt) {
+        std::filesystem::rename(temp, filename, ec);
+        if (!ec) return true;
+        std::this_thread::sleep_for(std::chrono::milliseconds(1));
+    }
+    std::filesystem::remove(temp, ec);
+    return false;
+}
+
+#endif // ATOMIC_FILE_H
@@ -3,6 +3,7 @@
 #include "Car.h"
 #include <iostream>  // For potential debugging output
 #include <stdexcept> // For std::out_of_range if using .at() on JSON fields
+#include <cctype>    // For tolower when comparing units
 
 using namespace std;
 
@@ -20,7 +21,51 @@ Car::Car(string name, bool available, string type, double rating,
     : name(name), available(available), type(type), rating(rating), 
       imagePath(imagePath), mileage(mileage), maxSpeed(maxSpeed), 
       seats(seats), transmission(transmission), vehicleClass(vehicleClass), 
-      price(price), releaseDate(releaseDate) {}
+      price(price), releaseDate(releaseDate) {
+    parseSpecs();
+}
+
+namespace {
+// End of the digits (with at most one decimal point) after any leading spaces; 0 if none.
+size_t numberEnd(const string& text, size_t& start) {
+    start = 0;
+    while (start < text.size() && text[start] == ' ') ++start;
+    size_t i = start;
+    bool digits = false, point = false;
+    for (; i < text.size(); ++i) {
+        char c = text[i];
+        if (c >= '0' && c <= '9') digits = true;
+        else if (c == '.' && !point) point = true;
+        else break;
+    }
+    return digits ? i : 0;
+}
+
+// The leading number if the rest of the text is empty or the given unit (any case), else 0.
+double valueIn(const string& text, const string& unit) {
+    size_t start;
+    size_t end = numberEnd(text, start);
+    if (end == 0) return 0.0;
+    size_t restStart = end, restEnd = text.size();
+    while (restStart < restEnd && static_cast<unsigned char>(text[restStart]) <= ' ') ++restStart;
+    while (restEnd > restStart && static_cast<unsigned char>(text[restEnd - 1]) <= ' ') --restEnd;
+    if (restEnd > restStart) {
+        if (restEnd - restStart != unit.size()) return 0.0;
+        for (size_t k = 0; k < unit.size(); ++k) {
+            if (tolower(static_cast<unsigned char>(text[restStart + k])) != unit[k]) return 0.0;
+        }
+    }
+    return stod(text.substr(start, end - start));
+}
+} // namespace
+
+void Car::parseSpecs() {
+    size_t start;
+    size_t end = numberEnd(seats, start);
+    seatCount = end == 0 ? 0 : static_cast<int>(stod(seats.substr(start, end - start)));
+    maxSpeedKmh = valueIn(maxSpeed, "km/h");
+    mileageKmpl = valueIn(mileage, "km/l");
+}
 
 // --- Getters Implementation ---
 string Car::getName() const { return name; }
@@ -35,6 +80,9 @@ string Car::getTransmission() const { return transmission; }
 string Car::getVehicleClass() const { return vehicleClass; }
 double Car::getPrice() const { return price; }
 string Car::getReleaseDate() const { return releaseDate; }
+int Car::getSeatCount() const { return seatCount; }
+double Car::getMaxSpeedKmh() const { return maxSpeedKmh; }
+double Car::getMileageKmpl() const { return mileageKmpl; }
 
 // --- Setters Implementation ---
 void Car::setName(const string& name) { this->name = name; }
@@ -42,9 +90,9 @@ void Car::setAvailable(bool available) { this->available = available; }
 void Car::setType(const string& type) { this->type = type; }
 void Car::setRating(double rating) { this->rating = rating; }
 void Car::setImagePath(const string& imagePath) { this->imagePath = imagePath; }
-void Car::setMileage(const string& mileage) { this->mileage = mileage; }
-void Car::setMaxSpeed(const string& maxSpeed) { this->maxSpeed = maxSpeed; }
-void Car::setSeats(const string& seats) { this->seats = seats; }
+void Car::setMileage(const string& mileage) { this->mileage = mileage; mileageKmpl = valueIn(mileage, "km/l"); }
+void Car::setMaxSpeed(const string& maxSpeed) { this->maxSpeed = maxSpeed; maxSpeedKmh = valueIn(maxSpeed, "km/h"); }
+void Car::setSeats(const string& seats) { this->seats = seats; parseSpecs(); }
 void Car::setTransmission(const string& transmission) { this->transmission = transmission; }
 void Car::setVehicleClass(const string& vehicleClass) { this->vehicleClass = vehicleClass; }
 void Car::setPrice(double price) { this->price = price; }
@@ -24,6 +24,13 @@ private:
     double price;            // Price per day/rental period
     std::string releaseDate; // Date string
 
+    // Read once from mileage, maxSpeed and seats whenever they are set, so sorting and
+    // filtering compare numbers. Never serialized. Java's Car parses the same way.
+    int seatCount = 0;
+    double maxSpeedKmh = 0.0;
+    double mileageKmpl = 0.0;
+    void parseSpecs();
+
 public:
     // Default constructor
     Car();
@@ -48,6 +55,13 @@ public:
     double getPrice() const;
     std::string getReleaseDate() const;
 
+    // Seats as a number ("5", "5 seats"), or 0 if the text does not start with one.
+    int getSeatCount() const;
+    // Top speed in km/h ("180 km/h", "180"), or 0 if it is not given in km/h.
+    double getMaxSpeedKmh() const;
+    // Fuel economy in km/l ("12 km/l", "12"), or 0 if it is not given that way.
+    double getMileageKmpl() const;
+
     // --- Setters (optional, but good for modifying objects after creation) ---
     void setName(const std::string& name);
     void setAvailable(bool available);
@@ -5,6 +5,11 @@
 #include <algorithm> // For std::transform and std::sort
 #include <iostream>  // For std::cerr and std::cout
 #include <vector>    // Explicitly include for clarity, though CarManager.h likely has it
+#include <chrono>    // Seeds the catalog version from the clock
+#include <unordered_set>
+#include <unordered_map>
+#include <system_error>
+#include "AtomicFile.h" // Saves replace cars_data.txt whole
 
 using namespace std; 
 
@@ -13,7 +18,9 @@ using namespace std;
 #define CAR_STORAGE_FILE "cars_data.txt" // Default file if not defined elsewhere
 #endif
 
-CarManager::CarManager() {
+CarManager::CarManager()
+    : version(chrono::duration_cast<chrono::milliseconds>(chrono::system_clock::now().time_since_epoch()).count()),
+      historyStart(version) {
     loadCarsFromFile(CAR_STORAGE_FILE);
     if (cars.empty()) { // Initialize with default cars if file is empty/not found
         cout << "C++: Initializing CarManager with default cars as cars_data.txt is empty or missing." << endl;
@@ -38,12 +45,24 @@ CarManager::CarManager() {
 }
 
 void CarManager::loadCarsFromFile(const string& filename) {
-    ifstream file(filename);
-    if (!file.is_open()) {
+    vector<Car> loaded;
+    if (!readCarsFile(filename, loaded)) {
         cerr << "C++: Car data file not found: " << filename << endl;
         return;
     }
-    cars.clear();
+    cars = move(loaded);
+    rememberDiskState(filename);
+    ++version;
+    changeLog.clear(); // Whatever was on disk replaces the history as a whole
+    historyStart = version;
+    cout << "C++: Cars loaded from " << filename << ". Total: " << cars.size() << endl;
+}
+
+bool CarManager::readCarsFile(const string& filename, vector<Car>& loaded) const {
+    ifstream file(filename);
+    if (!file.is_open()) {
+        return false;
+    }
     string line;
     while (getline(file, line)) {
         stringstream ss(line);
@@ -65,44 +84,125 @@ void CarManager::loadCarsFromFile(const string& filename) {
             car.setVehicleClass(segments[9]);
             try { car.setPrice(stod(segments[10])); } catch (...) { car.setPrice(0.0); }
             car.setReleaseDate(segments[11]);
-            cars.push_back(car);
+            loaded.push_back(car);
         } else {
             cerr << "C++: Warning: Malformed line in " << filename << ": " << line << " (Expected 12 segments, found " << segments.size() << ")" << endl;
         }
     }
-    file.close();
-    cout << "C++: Cars loaded from " << filename << ". Total: " << cars.size() << endl;
+    return true;
 }
 
-void CarManager::saveCarsToFile(const string& filename) {
-    ofstream file(filename);
-    if (!file.is_open()) {
-        cerr << "C++: Error: Could not open file for saving cars: " << filename << endl;
-        return;
+void CarManager::rememberDiskState(const string& filename) {
+    error_code ec;
+    diskTime = filesystem::last_write_time(filename, ec);
+    diskSize = ec ? 0 : filesystem::file_size(filename, ec);
+}
+
+bool CarManager::mergeChangesFromDisk() {
+    // A stat per call; the file is only read when its size or timestamp moved.
+    error_code ec;
+    filesystem::file_time_type time = filesystem::last_write_time(CAR_STORAGE_FILE, ec);
+    if (ec) return false;
+    uintmax_t size = filesystem::file_size(CAR_STORAGE_FILE, ec);
+    if (ec || (time == diskTime && size == diskSize)) return false;
+
+    vector<Car> loaded;
+    if (!readCarsFile(CAR_STORAGE_FILE, loaded)) return false;
+    diskTime = time;
+    diskSize = size;
+
+    unordered_map<string, const Car*> current;
+    for (const auto& car : cars) { current[car.getName()] = &car; }
+    vector<string> changed;
+    for (const auto& car : loaded) {
+        auto it = current.find(car.getName());
+        if (it == current.end() || it->second->toJson() != car.toJson()) {
+            changed.push_back(car.getName());
+        }
+        if (it != current.end()) current.erase(it);
     }
+    for (const auto& gone : current) { changed.push_back(gone.first); } // Deleted elsewhere
+    if (changed.empty()) return false; // Rewritten with the same content, e.g. by our own standby
+
+    cars = move(loaded);
+    for (const auto& name : changed) { recordChange(name); }
+    cout << "C++: Merged " << changed.size() << " car(s) changed in " << CAR_STORAGE_FILE << " by another process." << endl;
+    return true;
+}
+
+// Written to a temporary file and renamed over the old one, so a crash mid-save leaves the
+// previous catalog on disk instead of a truncated one.
+void CarManager::saveCarsToFile(const string& filename) {
+    ostringstream file;
     for (const auto& car : cars) {
         // Use getters to retrieve the private member data
         file << car.getName() << "|" << (car.isAvailable() ? "1" : "0") << "|" << car.getType() << "|"
              << car.getRating() << "|" << car.getImagePath() << "|" << car.getMileage() << "|"
              << car.getMaxSpeed() << "|" << car.getSeats() << "|" << car.getTransmission() << "|"
-             << car.getVehicleClass() << "|" << car.getPrice() << "|" << car.getReleaseDate() << endl;
+             << car.getVehicleClass() << "|" << car.getPrice() << "|" << car.getReleaseDate() << "\n";
     }
-    file.close();
+    if (!writeFileAtomically(filename, file.str())) {
+        cerr << "C++: Error: Could not open file for saving cars: " << filename << endl;
+        return;
+    }
+    rememberDiskState(filename); // Our own save is not a change from another process
     cout << "C++: Cars saved to " << filename << ". Total: " << cars.size() << endl;
 }
 
 vector<Car> CarManager::getAllCars() { return cars; }
 
+void CarManager::setAutoSave(bool enabled) { autoSave = enabled; }
+
+unsigned long long CarManager::getVersion() const { return version; }
+
+void CarManager::recordChange(const string& name) {
+    ++version;
+    changeLog.push_back({version, name});
+    if (changeLog.size() > CHANGE_LOG_CAPACITY) {
+        historyStart = changeLog.front().version;
+        changeLog.pop_front();
+    }
+}
+
+CarChanges CarManager::getChangesSince(long long since) const {
+    CarChanges changes;
+    if (since < static_cast<long long>(historyStart) || since > static_cast<long long>(version)) {
+        // Older than the log, or from before a restart or reload: only the full catalog will do.
+        changes.reset = true;
+        changes.upserted = cars;
+        return changes;
+    }
+    unordered_set<string> changed;
+    for (auto it = changeLog.rbegin(); it != changeLog.rend() && it->version > static_cast<unsigned long long>(since); ++it) {
+        changed.insert(it->name);
+    }
+    for (const auto& car : cars) {
+        if (changed.erase(car.getName()) > 0) {
+            changes.upserted.push_back(car);
+        }
+    }
+    changes.deleted.assign(changed.begin(), changed.end()); // Changed, but no longer in the catalog
+    return changes;
+}
+
+void CarManager::saveIfAutoSaving() {
+    if (autoSave) {
+        saveCarsToFile(CAR_STORAGE_FILE);
+    }
+}
+
 void CarManager::addCar(const Car& car) { 
     cars.push_back(car); 
-    saveCarsToFile(CAR_STORAGE_FILE); 
+    recordChange(car.getName());
+    saveIfAutoSaving(); 
 }
 
 bool CarManager::updateCar(const Car& car) {
     for (auto& existingCar : cars) {
         if (existingCar.getName() == car.getName()) {
             existingCar = car; 
-            saveCarsToFile(CAR_STORAGE_FILE);
+            recordChange(car.getName());
+            saveIfAutoSaving();
             return true;
         }
     }
@@ -113,7 +213,8 @@ bool CarManager::deleteCar(const string& name) {
     auto it = remove_if(cars.begin(), cars.end(), [&](const Car& c) { return c.getName() == name; });
     if (it != cars.end()) {
         cars.erase(it, cars.end());
-        saveCarsToFile(CAR_STORAGE_FILE);
+        recordChange(name);
+        saveIfAutoSaving();
         return true;
     }
     return false;
@@ -140,21 +241,23 @@ vector<Car> CarManager::searchCars(const string& query, const string& searchFiel
     return results;
 }
 
-vector<Car> CarManager::filterCars(const string& typeFilter, double minRating, double maxPrice, bool availableOnly) {
+vector<Car> CarManager::filterCars(const string& typeFilter, double minRating, double maxPrice, bool availableOnly, int minSeats) {
     vector<Car> filtered;
     for (const auto& car : cars) {
         bool passesType = typeFilter.empty() || (car.getType() == typeFilter);
         bool passesRating = car.getRating() >= minRating;
         bool passesPrice = car.getPrice() <= maxPrice;
         bool passesAvailability = !availableOnly || car.isAvailable();
-        if (passesType && passesRating && passesPrice && passesAvailability) { filtered.push_back(car); }
+        bool passesSeats = car.getSeatCount() >= minSeats; // Parsed when the car was loaded
+        if (passesType && passesRating && passesPrice && passesAvailability && passesSeats) { filtered.push_back(car); }
     }
     return filtered;
 }
 
 vector<Car> CarManager::sortCars(const string& sortBy, bool ascending) {
     vector<Car> sortedCars = cars; // Create a copy to sort
-    sort(sortedCars.begin(), sortedCars.end(), [&](const Car& a, const Car& b) {
+    // Stable so ties keep catalog order, the same answer Java's CarQueryEngine gives locally.
+    stable_sort(sortedCars.begin(), sortedCars.end(), [&](const Car& a, const Car& b) {
         if (sortBy == "name") { 
             return ascending ? (a.getName() < b.getName()) : (a.getName() > b.getName()); 
         }
@@ -164,6 +267,16 @@ vector<Car> CarManager::sortCars(const string& sortBy, bool ascending) {
         else if (sortBy == "rating") { 
             return ascending ? (a.getRating() < b.getRating()) : (a.getRating() > b.getRating()); 
         }
+        // The text specs sort on the numbers parsed from them; unparseable ones count as 0
+        else if (sortBy == "seats") {
+            return ascending ? (a.getSeatCount() < b.getSeatCount()) : (a.getSeatCount() > b.getSeatCount());
+        }
+        else if (sortBy == "maxSpeed") {
+            return ascending ? (a.getMaxSpeedKmh() < b.getMaxSpeedKmh()) : (a.getMaxSpeedKmh() > b.getMaxSpeedKmh());
+        }
+        else if (sortBy == "mileage") {
+            return ascending ? (a.getMileageKmpl() < b.getMileageKmpl()) : (a.getMileageKmpl() > b.getMileageKmpl());
+        }
         return false; // Default return if sortBy is not recognized
     });
     return sortedCars;
@@ -3,9 +3,20 @@
 #define CAR_MANAGER_H
 
 #include "Car.h"
+#include <deque>
+#include <filesystem>
 #include <vector>
 #include <string>
 
+// What changed since a given version: the current state of every car added or updated, and
+// the names of those deleted. With reset set, that history is no longer kept and upserted
+// holds the whole catalog instead.
+struct CarChanges {
+    bool reset = false;
+    std::vector<Car> upserted;
+    std::vector<std::string> deleted;
+};
+
 class CarManager {
 public:
     CarManager();
@@ -17,12 +28,45 @@ public:
     bool updateCar(const Car& car);
     bool deleteCar(const std::string& name);
 
+    // While off, add/update/delete only change memory; the caller saves once when done.
+    void setAutoSave(bool enabled);
+
+    // Bumped by every change to the catalog, including a reload; sent with every response so
+    // Java can tell whether its cached query results are still current. It starts from the
+    // clock, so a restarted process never reports a version an older one already used.
+    unsigned long long getVersion() const;
+
+    // Changes after version `since` (the version of Java's last sync), from the change log.
+    CarChanges getChangesSince(long long since) const;
+
+    // Picks up cars_data.txt if another process (another terminal's backend) rewrote it since
+    // this one last loaded or saved it. Only the cars that differ are recorded as changes, so
+    // Java syncs just those instead of reloading. Returns whether anything changed.
+    bool mergeChangesFromDisk();
+
     std::vector<Car> searchCars(const std::string& query, const std::string& searchField);
-    std::vector<Car> filterCars(const std::string& typeFilter, double minRating, double maxPrice, bool availableOnly);
+    std::vector<Car> filterCars(const std::string& typeFilter, double minRating, double maxPrice, bool availableOnly, int minSeats = 0);
     std::vector<Car> sortCars(const std::string& sortBy, bool ascending);
 
 private:
+    struct ChangeEntry {
+        unsigned long long version; // The version this change produced
+        std::string name;           // The car it touched; its current state is looked up on read
+    };
+    static const size_t CHANGE_LOG_CAPACITY = 10000;
+
+    void saveIfAutoSaving();
+    void recordChange(const std::string& name);
+    bool readCarsFile(const std::string& filename, std::vector<Car>& loaded) const;
+    void rememberDiskState(const std::string& filename);
+
     std::vector<Car> cars;
+    bool autoSave = true;
+    unsigned long long version;
+    std::deque<ChangeEntry> changeLog;
+    unsigned long long historyStart; // Every change after this version is in changeLog
+    std::filesystem::file_time_type diskTime{}; // cars_data.txt as this process last read or wrote it
+    std::uintmax_t diskSize = 0;
     const std::string CAR_STORAGE_FILE = "cars_data.txt"; // This will store C++'s data
 };
 
@@ -0,0 +1,260 @@
+// src/cpp/CompactCodec.cpp
+
+#include "CompactCodec.h"
+#include <cstdint>
+#include <cstring>
+#include <stdexcept>
+#include <unordered_map>
+#include <vector>
+
+using namespace std;
+
+namespace {
+const unsigned char MAGIC = 0xCB;
+const unsigned char VERSION = 1;
+
+enum Tag : unsigned char {
+    TAG_NULL = 0, TAG_FALSE = 1, TAG_TRUE = 2, TAG_DOUBLE = 3, TAG_STRING = 4,
+    TAG_ARRAY = 5, TAG_OBJECT = 6, TAG_CAR_ARRAY = 7, TAG_CAR = 8
+};
+
+// Field order of a car record; must match CompactWireCodec.writeCar/readCar.
+const char* const CAR_KEYS[] = {
+    "name", "available", "type", "rating", "imagePath", "mileage", "maxSpeed",
+    "seats", "transmission", "vehicleClass", "price", "releaseDate"
+};
+
+bool isCarObject(const json& value) {
+    if (!value.is_object() || value.size() != 12) return false;
+    for (const char* key : CAR_KEYS) {
+        if (!value.contains(key)) return false;
+    }
+    return value["name"].is_string() && value["price"].is_number() && value["rating"].is_number();
+}
+
+// A car string field as the record carries it: null (or any non-string) is sent as "", the way
+// CompactWireCodec sends a Java null, since the record has no null string.
+string stringField(const json& car, const char* key) {
+    const json& value = car[key];
+    return value.is_string() ? value.get<string>() : string();
+}
+
+class Encoder {
+public:
+    string out;
+
+    void writeValue(const json& value) {
+        if (value.is_null()) {
+            out.push_back(char(TAG_NULL));
+        } else if (value.is_boolean()) {
+            out.push_back(char(value.get<bool>() ? TAG_TRUE : TAG_FALSE));
+        } else if (value.is_number()) {
+            out.push_back(char(TAG_DOUBLE));
+            writeDouble(value.get<double>());
+        } else if (value.is_string()) {
+            out.push_back(char(TAG_STRING));
+            writeString(value.get_ref<const string&>());
+        } else if (value.is_object()) {
+            if (isCarObject(value)) {
+                out.push_back(char(TAG_CAR));
+                writeCar(value);
+                return;
+            }
+            out.push_back(char(TAG_OBJECT));
+            writeVarint(value.size());
+            for (auto it = value.begin(); it != value.end(); ++it) {
+                writeDictionaryString(it.key());
+                writeValue(it.value());
+            }
+        } else if (value.is_array()) {
+            bool allCars = !value.empty();
+            for (const auto& item : value) {
+                if (!isCarObject(item)) { allCars = false; break; }
+            }
+            out.push_back(char(allCars ? TAG_CAR_ARRAY : TAG_ARRAY));
+            writeVarint(value.size());
+            for (const auto& item : value) {
+                if (allCars) writeCar(item); else writeValue(item);
+            }
+        } else {
+            out.push_back(char(TAG_NULL));
+        }
+    }
+
+private:
+    unordered_map<string, size_t> dictionary;
+
+    void writeCar(const json& car) {
+        writeString(car["name"].get<string>());
+        out.push_back(car.value("available", false) ? 1 : 0);
+        writeDictionaryString(stringField(car, "type"));
+        writeDouble(car["rating"].get<double>());
+        writeString(stringField(car, "imagePath"));
+        writeString(stringField(car, "mileage"));
+        writeString(stringField(car, "maxSpeed"));
+        writeString(stringField(car, "seats"));
+        writeDictionaryString(stringField(car, "transmission"));
+        writeDictionaryString(stringField(car, "vehicleClass"));
+        writeDouble(car["price"].get<double>());
+        writeString(stringField(car, "releaseDate"));
+    }
+
+    void writeDictionaryString(const string& value) {
+        auto found = dictionary.find(value);
+        if (found != dictionary.end()) {
+            writeVarint(found->second + 1);
+        } else {
+            size_t index = dictionary.size();
+            dictionary.emplace(value, index);
+            writeVarint(0);
+            writeString(value);
+        }
+    }
+
+    void writeString(const string& value) {
+        writeVarint(value.size());
+        out.append(value);
+    }
+
+    void writeDouble(double value) {
+        uint64_t raw;
+        memcpy(&raw, &value, 8);
+        for (int i = 0; i < 8; ++i) out.push_back(char((raw >> (8 * i)) & 0xFF));
+    }
+
+    void writeVarint(size_t value) {
+        while (value >= 0x80) {
+            out.push_back(char((value & 0x7F) | 0x80));
+            value >>= 7;
+        }
+        out.push_back(char(value));
+    }
+};
+
+class Decoder {
+public:
+    explicit Decoder(const string& body) : bytes(body), position(0) {}
+
+    unsigned char readByte() {
+        require(1);
+        return static_cast<unsigned char>(bytes[position++]);
+    }
+
+    json readValue() {
+        unsigned char tag = readByte();
+        switch (tag) {
+            case TAG_NULL: return nullptr;
+            case TAG_FALSE: return false;
+            case TAG_TRUE: return true;
+            case TAG_DOUBLE: return readDouble();
+            case TAG_STRING: return readString();
+            case TAG_ARRAY: {
+                size_t count = readVarint();
+                json items = json::array();
+                for (size_t i = 0; i < count; ++i) items.push_back(readValue());
+                return items;
+            }
+            case TAG_OBJECT: {
+                size_t count = readVarint();
+                json object = json::object();
+                for (size_t i = 0; i < count; ++i) {
+                    string key = readDictionaryString();
+                    object[key] = readValue();
+                }
+                return object;
+            }
+            case TAG_CAR_ARRAY: {
+                size_t count = readVarint();
+                json cars = json::array();
+                for (size_t i = 0; i < count; ++i) cars.push_back(readCar());
+                return cars;
+            }
+            case TAG_CAR: return readCar();
+            default: throw runtime_error("Unknown compact tag " + to_string(tag));
+        }
+    }
+
+private:
+    const string& bytes;
+    size_t position;
+    vector<string> dictionary;
+
+    json readCar() {
+        json car;
+        car["name"] = readString();
+        car["available"] = (readByte() & 1) != 0;
+        car["type"] = readDictionaryString();
+        car["rating"] = readDouble();
+        car["imagePath"] = readString();
+        car["mileage"] = readString();
+        car["maxSpeed"] = readString();
+        car["seats"] = readString();
+        car["transmission"] = readDictionaryString();
+        car["vehicleClass"] = readDictionaryString();
+        car["price"] = readDouble();
+        car["releaseDate"] = readString();
+        return car;
+    }
+
+    string readDictionaryString() {
+        size_t reference = readVarint();
+        if (reference == 0) {
+            dictionary.push_back(readString());
+            return dictionary.back();
+        }
+        if (reference > dictionary.size()) throw runtime_error("Compact dictionary reference out of range");
+        return dictionary[reference - 1];
+    }
+
+    string readString() {
+        size_t length = readVarint();
+        require(length);
+        string value = bytes.substr(position, length);
+        position += length;
+        return value;
+    }
+
+    double readDouble() {
+        require(8);
+        uint64_t raw = 0;
+        for (int i = 0; i < 8; ++i) raw |= uint64_t(static_cast<unsigned char>(bytes[position++])) << (8 * i);
+        double value;
+        memcpy(&value, &raw, 8);
+        return value;
+    }
+
+    size_t readVarint() {
+        size_t value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            unsigned char b = readByte();
+            value |= size_t(b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw runtime_error("Malformed varint in compact body");
+    }
+
+    void require(size_t count) {
+        if (position + count > bytes.size()) throw runtime_error("Truncated compact body");
+    }
+};
+}
+
+bool isCompact(const string& body) {
+    return body.size() >= 2 && static_cast<unsigned char>(body[0]) == MAGIC;
+}
+
+json decodeCompact(const string& body) {
+    Decoder decoder(body);
+    if (decoder.readByte() != MAGIC || decoder.readByte() != VERSION) {
+        throw runtime_error("Unsupported compact body version");
+    }
+    return decoder.readValue();
+}
+
+string encodeCompact(const json& value) {
+    Encoder encoder;
+    encoder.out.push_back(char(MAGIC));
+    encoder.out.push_back(char(VERSION));
+    encoder.writeValue(value);
+    return encoder.out;
+}
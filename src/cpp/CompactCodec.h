@@ -0,0 +1,22 @@
+// src/cpp/CompactCodec.h
+#ifndef COMPACT_CODEC_H
+#define COMPACT_CODEC_H
+
+#include <string>
+#include "json.hpp"
+
+using json = nlohmann::json;
+
+// Backend half of the compact binary wire format (see CompactWireCodec.java for the layout).
+// Commands are decoded into the same json objects handleCommand() already understands, and
+// responses are encoded from them, so the action handlers do not care about the encoding.
+
+// True if the body starts with the compact magic byte rather than JSON text.
+bool isCompact(const std::string& body);
+
+// Throws std::runtime_error on a truncated or malformed body.
+json decodeCompact(const std::string& body);
+
+std::string encodeCompact(const json& value);
+
+#endif // COMPACT_CODEC_H
@@ -0,0 +1,192 @@
+// src/cpp/SharedRing.cpp
+
+#include "SharedRing.h"
+#include <atomic>
+#include <chrono>
+#include <cstring>
+#include <iostream>
+#include <thread>
+
+#ifdef _WIN32
+#include <windows.h>
+#else
+#include <fcntl.h>
+#include <sys/mman.h>
+#include <sys/stat.h>
+#include <unistd.h>
+#endif
+
+using namespace std;
+
+// Must match SharedMemoryTransport.java. All fields are little-endian, which is what the
+// backend's x86/x64 targets use natively.
+namespace {
+const uint32_t MAGIC = 0x43525242; // "CRRB"
+const uint32_t VERSION = 1;
+const size_t HEADER_SIZE = 64;
+const size_t SLOT_HEADER_SIZE = 16;
+const size_t OFFSET_REQUEST_CONSUMED = 16;
+const size_t OFFSET_RESPONSE_CONSUMED = 24;
+const size_t OFFSET_CLOSED = 32;
+const uint32_t FLAG_LAST = 1;
+const int SPIN_ROUNDS = 200;
+
+static_assert(sizeof(atomic<uint64_t>) == 8 && atomic<uint64_t>::is_always_lock_free,
+              "shared ring needs lock-free 64-bit atomics");
+
+atomic<uint64_t>& atomic64(unsigned char* address) {
+    return *reinterpret_cast<atomic<uint64_t>*>(address);
+}
+
+atomic<uint32_t>& atomic32(unsigned char* address) {
+    return *reinterpret_cast<atomic<uint32_t>*>(address);
+}
+
+// Spin first, then sleep in short steps, mirroring the Java side's idle strategy.
+void idle(int& rounds) {
+    if (rounds++ < SPIN_ROUNDS) {
+        this_thread::yield();
+    } else {
+        this_thread::sleep_for(chrono::microseconds(100));
+    }
+}
+}
+
+SharedRing::SharedRing()
+    : base(nullptr), mappedSize(0), slotCount(0), slotSize(0), requestRing(nullptr),
+      responseRing(nullptr), nextRequest(0), nextResponse(0)
+#ifdef _WIN32
+      , fileHandle(nullptr), mappingHandle(nullptr)
+#else
+      , fd(-1)
+#endif
+{}
+
+SharedRing::~SharedRing() {
+#ifdef _WIN32
+    if (base) UnmapViewOfFile(base);
+    if (mappingHandle) CloseHandle(mappingHandle);
+    if (fileHandle && fileHandle != INVALID_HANDLE_VALUE) CloseHandle(fileHandle);
+#else
+    if (base) munmap(base, mappedSize);
+    if (fd >= 0) close(fd);
+#endif
+}
+
+bool SharedRing::open(const string& filename) {
+#ifdef _WIN32
+    fileHandle = CreateFileA(filename.c_str(), GENERIC_READ | GENERIC_WRITE,
+                             FILE_SHARE_READ | FILE_SHARE_WRITE, nullptr, OPEN_EXISTING,
+                             FILE_ATTRIBUTE_NORMAL, nullptr);
+    if (fileHandle == INVALID_HANDLE_VALUE) {
+        cerr << "C++: Could not open shared ring file: " << filename << endl;
+        return false;
+    }
+    LARGE_INTEGER size;
+    GetFileSizeEx(fileHandle, &size);
+    mappedSize = size_t(size.QuadPart);
+    mappingHandle = CreateFileMappingA(fileHandle, nullptr, PAGE_READWRITE, 0, 0, nullptr);
+    if (!mappingHandle) {
+        cerr << "C++: Could not create mapping for shared ring file." << endl;
+        return false;
+    }
+    base = static_cast<unsigned char*>(MapViewOfFile(mappingHandle, FILE_MAP_ALL_ACCESS, 0, 0, 0));
+#else
+    fd = ::open(filename.c_str(), O_RDWR);
+    if (fd < 0) {
+        cerr << "C++: Could not open shared ring file: " << filename << endl;
+        return false;
+    }
+    struct stat info;
+    fstat(fd, &info);
+    mappedSize = size_t(info.st_size);
+    void* mapped = mmap(nullptr, mappedSize, PROT_READ | PROT_WRITE, MAP_SHARED, fd, 0);
+    base = mapped == MAP_FAILED ? nullptr : static_cast<unsigned char*>(mapped);
+#endif
+    if (!base || mappedSize < HEADER_SIZE) {
+        cerr << "C++: Could not map shared ring file: " << filename << endl;
+        return false;
+    }
+
+    // Java publishes the magic number last, after the geometry.
+    for (int waited = 0; atomic32(base).load(memory_order_acquire) != MAGIC; ++waited) {
+        if (waited > 5000) {
+            cerr << "C++: Shared ring header never became ready." << endl;
+            return false;
+        }
+        this_thread::sleep_for(chrono::milliseconds(1));
+    }
+    uint32_t version;
+    memcpy(&version, base + 4, 4);
+    memcpy(&slotCount, base + 8, 4);
+    memcpy(&slotSize, base + 12, 4);
+    if (version != VERSION || slotCount == 0 || slotSize <= SLOT_HEADER_SIZE ||
+        HEADER_SIZE + 2 * size_t(slotCount) * slotSize > mappedSize) {
+        cerr << "C++: Unsupported shared ring layout (version " << version << ")." << endl;
+        return false;
+    }
+    requestRing = base + HEADER_SIZE;
+    responseRing = requestRing + size_t(slotCount) * slotSize;
+    return true;
+}
+
+unsigned char* SharedRing::slotAt(unsigned char* ring, uint64_t sequence) const {
+    return ring + size_t(sequence % slotCount) * slotSize;
+}
+
+bool SharedRing::isClosed() const {
+    return atomic32(base + OFFSET_CLOSED).load(memory_order_acquire) != 0;
+}
+
+bool SharedRing::readMessage(string& id, string& body) {
+    string message;
+    while (true) {
+        unsigned char* slot = slotAt(requestRing, nextRequest);
+        int rounds = 0;
+        while (atomic64(slot).load(memory_order_acquire) != nextRequest + 1) {
+            if (isClosed()) return false;
+            idle(rounds);
+        }
+        uint32_t length, flags;
+        memcpy(&length, slot + 8, 4);
+        memcpy(&flags, slot + 12, 4);
+        message.append(reinterpret_cast<char*>(slot + SLOT_HEADER_SIZE), length);
+        ++nextRequest;
+        atomic64(base + OFFSET_REQUEST_CONSUMED).store(nextRequest, memory_order_release);
+        if (flags & FLAG_LAST) break;
+    }
+    if (message.empty()) return false;
+    size_t idLength = static_cast<unsigned char>(message[0]);
+    if (idLength + 1 > message.size()) return false;
+    id = message.substr(1, idLength);
+    body = message.substr(1 + idLength);
+    return true;
+}
+
+void SharedRing::writeMessage(const string& id, const string& body) {
+    string message;
+    message.reserve(1 + id.size() + body.size());
+    message.push_back(static_cast<char>(id.size()));
+    message += id;
+    message += body;
+
+    size_t capacity = slotSize - SLOT_HEADER_SIZE;
+    size_t written = 0;
+    while (written < message.size()) {
+        // Wait for Java to drain the slot we are about to reuse.
+        int rounds = 0;
+        while (nextResponse - atomic64(base + OFFSET_RESPONSE_CONSUMED).load(memory_order_acquire) >= slotCount) {
+            if (isClosed()) return;
+            idle(rounds);
+        }
+        unsigned char* slot = slotAt(responseRing, nextResponse);
+        uint32_t chunk = uint32_t(min(capacity, message.size() - written));
+        memcpy(slot + SLOT_HEADER_SIZE, message.data() + written, chunk);
+        written += chunk;
+        uint32_t flags = written == message.size() ? FLAG_LAST : 0;
+        memcpy(slot + 8, &chunk, 4);
+        memcpy(slot + 12, &flags, 4);
+        atomic64(slot).store(nextResponse + 1, memory_order_release); // Publish
+        ++nextResponse;
+    }
+}
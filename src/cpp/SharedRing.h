@@ -0,0 +1,44 @@
+// src/cpp/SharedRing.h
+#ifndef SHARED_RING_H
+#define SHARED_RING_H
+
+#include <cstdint>
+#include <string>
+
+// Backend half of the memory-mapped command channel (see SharedMemoryTransport.java for the
+// layout). Java creates and initialises the ring file; the backend maps it, reads requests
+// from the request ring and publishes responses into the response ring.
+class SharedRing {
+public:
+    SharedRing();
+    ~SharedRing();
+
+    // Maps the ring file and waits for Java to finish writing its header.
+    bool open(const std::string& filename);
+
+    // Blocks until a full request is available. Returns false once Java marks the ring closed.
+    bool readMessage(std::string& id, std::string& body);
+
+    void writeMessage(const std::string& id, const std::string& body);
+
+private:
+    unsigned char* base;
+    size_t mappedSize;
+    uint32_t slotCount;
+    uint32_t slotSize;
+    unsigned char* requestRing;
+    unsigned char* responseRing;
+    uint64_t nextRequest;
+    uint64_t nextResponse;
+#ifdef _WIN32
+    void* fileHandle;
+    void* mappingHandle;
+#else
+    int fd;
+#endif
+
+    unsigned char* slotAt(unsigned char* ring, uint64_t sequence) const;
+    bool isClosed() const;
+};
+
+#endif // SHARED_RING_H
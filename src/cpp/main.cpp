@@ -4,9 +4,25 @@
 #include <fstream>       // For file operations (ifstream, ofstream)
 #include <string>
 #include <chrono>        // For std::chrono::seconds, milliseconds
-#include <thread>        // For std::this_thread::sleep_for
+#include <thread>        // For std::this_thread::sleep_for and the command worker
 #include <vector>        // For std::vector
+#include <deque>         // For the queue of commands waiting for the worker
+#include <mutex>         // For std::mutex, std::lock_guard
+#include <condition_variable> // Wakes the worker when a command is queued
+#include <functional>    // For std::function (channel read/write callbacks)
+#include <cstdio>        // For fread/fwrite on the stdio channel
+#include <cstring>       // For strcmp
+#include <cstdint>       // For uint32_t
+#include <filesystem>    // For last_write_time/file_size change detection
+#include <system_error>  // For std::error_code
+#ifdef _WIN32
+#include <io.h>          // For _setmode
+#include <fcntl.h>       // For _O_BINARY
+#endif
 #include "CarManager.h"  // Include your CarManager header
+#include "SharedRing.h"  // Memory-mapped channel used with --shm
+#include "CompactCodec.h" // Binary encoding negotiated in the HELLO handshake
+#include "AtomicFile.h"  // Temp file + rename, so Java never reads a half-written file
 #include "Car.h"         // Ensure Car.h is included for Car class definition
 #include "json.hpp"      // For JSON parsing/generation (nlohmann/json)
 
@@ -27,37 +43,227 @@ string readFile(const string& filename) {
     return content;
 }
 
-// Function to write content to a file
+// Function to write content to a file, replacing it whole so Java never sees half of it
 void writeFile(const string& filename, const string& content) {
-    ofstream file(filename);
-    if (file.is_open()) {
-        file << content;
-        file.close();
-    } else {
+    if (!writeFileAtomically(filename, content)) {
         cerr << "C++: Error: Could not write to file: " << filename << endl;
     }
 }
 
+// Upper bound on a single stdio frame, mirrors PipeTransport.MAX_FRAME_LENGTH on the Java side.
+const uint32_t MAX_FRAME_LENGTH = 64u * 1024u * 1024u;
+
 // Global variable to store the last processed command ID
 // This helps prevent processing the same command multiple times if the file isn't cleared instantly
 string lastProcessedCommandId = "";
 
-int main() {
-    CarManager manager; // Create an instance of your CarManager
+// Executes one command against the car manager and builds the response envelope.
+// Shared by every transport so the action set stays identical across them.
+json handleCommand(CarManager& manager, const json& command) {
+    string action = command.value("action", ""); // Get the "action" field from JSON
 
-    // --- Initial setup for CarManager and data loading ---
-    if (!ifstream("cars_data.txt").good()) {
-        cout << "C++: cars_data.txt not found. Initializing with default cars." << endl;
-        // Add some default cars using the new Car constructor
-        manager.addCar(Car("Toyota Camry", true, "Sedan", 4.5, "/img/camry.png", "50k km", "200 km/h", "5 seats", "Automatic", "Mid-size", 50.0, "2023-01-15"));
-        manager.addCar(Car("Honda Civic", true, "Sedan", 4.2, "/img/civic.png", "30k km", "180 km/h", "5 seats", "Automatic", "Compact", 45.0, "2022-03-20"));
-        manager.addCar(Car("Ford Escape", false, "SUV", 4.0, "/img/escape.png", "60k km", "190 km/h", "5 seats", "Automatic", "Compact SUV", 60.0, "2021-07-10"));
-        manager.saveCarsToFile("cars_data.txt"); // Save these initial cars
-    } else {
-        cout << "C++: Loading cars from cars_data.txt." << endl;
+    json response;
+    response["id"] = command.value("id", ""); // Echo the command ID in the response
+    response["status"] = "error";       // Default status
+
+    if (action == "HELLO") {
+        // Handshake sent by Java right after start-up to confirm the channel works and to
+        // advertise the encodings this backend can read. Java picks one; every later response
+        // is written in whatever encoding its command arrived in.
+        response["status"] = "success";
+        response["data"] = {{"protocol", 1}, {"encodings", json::array({"json", "compact"})}};
+
+    } else if (action == "PING") {
+        // Heartbeat from the Java supervisor: proves the loop is alive without touching the catalog.
+        response["status"] = "success";
+
+    } else if (action == "CANCEL") {
+        // The stdio and shared-memory loops answer CANCEL before it gets here. The file loop
+        // takes one command at a time, so there is never a waiting one to drop.
+        response["status"] = "success";
+        response["data"] = {{"cancelled", false}};
+
+    } else if (action == "RELOAD_CARS") {
+        // Sent to a warm standby when it takes over, so it serves what the old process saved.
+        cout << "C++: Received RELOAD_CARS command." << endl;
         manager.loadCarsFromFile("cars_data.txt");
+        response["status"] = "success";
+
+    } else if (action == "GET_ALL_CARS") {
+        cout << "C++: Received GET_ALL_CARS command." << endl;
+        vector<Car> cars = manager.getAllCars();
+        json carArray = json::array();
+        for (const auto& car : cars) { 
+            carArray.push_back(car.toJson()); // Use Car::toJson() directly
+        }
+        response["status"] = "success";
+        response["data"] = carArray;
+
+    } else if (action == "ADD_CAR") {
+        cout << "C++: Received ADD_CAR command." << endl;
+        try {
+            Car newCar = Car::fromJson(command["car"]); // Use Car::fromJson() directly
+            bool exists = false;
+            for (const auto& c : manager.getAllCars()) {
+                if (c.getName() == newCar.getName()) { // Use getter for comparison
+                    exists = true;
+                    break;
+                }
+            }
+            if (!exists) {
+                manager.addCar(newCar); // CarManager saves after adding/modifying
+                response["status"] = "success";
+                response["message"] = "Car added successfully.";
+            } else {
+                response["status"] = "error";
+                response["message"] = "Car with this name already exists.";
+            }
+        } catch (const exception& e) {
+            response["status"] = "error";
+            response["message"] = "Error adding car: " + string(e.what());
+        }
+    } 
+    // --- Add more command handlers here for UPDATE_CAR, DELETE_CAR, SEARCH, FILTER, SORT ---
+    else if (action == "UPDATE_CAR") {
+        cout << "C++: Received UPDATE_CAR command." << endl;
+        try {
+            Car updatedCar = Car::fromJson(command["car"]);
+            if (manager.updateCar(updatedCar)) {
+                response["status"] = "success";
+                response["message"] = "Car updated successfully.";
+            } else {
+                response["status"] = "error";
+                response["message"] = "Car not found for update.";
+            }
+        } catch (const exception& e) {
+            response["status"] = "error";
+            response["message"] = "Error updating car: " + string(e.what());
+        }
     }
+    else if (action == "DELETE_CAR") {
+        cout << "C++: Received DELETE_CAR command." << endl;
+        string carNameToDelete = command.value("carName", "");
+        if (carNameToDelete.empty()) {
+            response["status"] = "error";
+            response["message"] = "Car name for deletion cannot be empty.";
+        } else if (manager.deleteCar(carNameToDelete)) {
+            response["status"] = "success";
+            response["message"] = "Car deleted successfully.";
+        } else {
+            response["status"] = "error";
+            response["message"] = "Car not found for deletion.";
+        }
+    }
+    else if (action == "BATCH") {
+        // Runs each item through this same handler with per-item saves suspended, then writes
+        // cars_data.txt once. Items succeed or fail independently; "data" holds one
+        // {status, message} per item, in order.
+        cout << "C++: Received BATCH command." << endl;
+        json items = command.value("commands", json::array());
+        json results = json::array();
+        bool changed = false;
+        manager.setAutoSave(false);
+        for (const auto& item : items) {
+            string itemAction = item.is_object() ? item.value("action", "") : "";
+            json result;
+            if (itemAction == "ADD_CAR" || itemAction == "UPDATE_CAR" || itemAction == "DELETE_CAR") {
+                json itemResponse = handleCommand(manager, item);
+                result["status"] = itemResponse["status"];
+                result["message"] = itemResponse.value("message", "");
+                changed = changed || itemResponse["status"] == "success";
+            } else {
+                result["status"] = "error";
+                result["message"] = "Unsupported batch action: " + itemAction;
+            }
+            results.push_back(result);
+        }
+        manager.setAutoSave(true);
+        if (changed) {
+            manager.saveCarsToFile("cars_data.txt");
+        }
+        response["status"] = "success";
+        response["data"] = results;
+    }
+    else if (action == "GET_CHANGES_SINCE") {
+        // Delta sync for Java's copy of the catalog: "since" is the version of its last sync.
+        // Answers with the cars added or updated and the names deleted after that, or with the
+        // whole catalog and "reset" when that history is gone.
+        cout << "C++: Received GET_CHANGES_SINCE command." << endl;
+        long long since = static_cast<long long>(command.value("since", -1.0));
+        CarChanges changes = manager.getChangesSince(since);
+        json upserted = json::array();
+        for (const auto& car : changes.upserted) { upserted.push_back(car.toJson()); }
+        response["status"] = "success";
+        response["data"] = {{"sequence", manager.getVersion()}, {"reset", changes.reset},
+                            {"cars", upserted}, {"deleted", changes.deleted}};
+    }
+    else if (action == "SEARCH_CARS") {
+        cout << "C++: Received SEARCH_CARS command." << endl;
+        string query = command.value("query", "");
+        string searchField = command.value("searchField", "");
+        vector<Car> results = manager.searchCars(query, searchField);
+        json resultArray = json::array();
+        for (const auto& car : results) { resultArray.push_back(car.toJson()); }
+        response["status"] = "success";
+        response["data"] = resultArray;
+    }
+    else if (action == "FILTER_CARS") {
+        cout << "C++: Received FILTER_CARS command." << endl;
+        string typeFilter = command.value("typeFilter", "");
+        double minRating = command.value("minRating", 0.0);
+        double maxPrice = command.value("maxPrice", 1000000.0); // Use a large default
+        bool availableOnly = command.value("availableOnly", false);
+        int minSeats = static_cast<int>(command.value("minSeats", 0.0)); // Absent from older clients
+        vector<Car> results = manager.filterCars(typeFilter, minRating, maxPrice, availableOnly, minSeats);
+        json resultArray = json::array();
+        for (const auto& car : results) { resultArray.push_back(car.toJson()); }
+        response["status"] = "success";
+        response["data"] = resultArray;
+    }
+    else if (action == "SORT_CARS") {
+        cout << "C++: Received SORT_CARS command." << endl;
+        string sortBy = command.value("sortBy", "");
+        bool ascending = command.value("ascending", true);
+        vector<Car> results = manager.sortCars(sortBy, ascending);
+        json resultArray = json::array();
+        for (const auto& car : results) { resultArray.push_back(car.toJson()); }
+        response["status"] = "success";
+        response["data"] = resultArray;
+    }
+    else {
+        cerr << "C++: Unknown command action: '" << action << "'" << endl;
+        response["message"] = "Unknown action or invalid command structure.";
+    }
+    response["version"] = manager.getVersion();
+    return response;
+}
+
+// How often the file loop checks command.json's stamp while idle.
+const int COMMAND_POLL_MILLIS = 2;
+
+// Size and modification time of a file, used to skip re-reading a file that has not changed.
+struct FileStamp {
+    filesystem::file_time_type time{};
+    uintmax_t size = 0;
+    bool exists = false;
+
+    bool operator==(const FileStamp& other) const {
+        return exists == other.exists && size == other.size && time == other.time;
+    }
+};
 
+FileStamp stampOf(const string& filename) {
+    FileStamp stamp;
+    error_code ec;
+    stamp.time = filesystem::last_write_time(filename, ec);
+    if (ec) return stamp;
+    stamp.size = filesystem::file_size(filename, ec);
+    stamp.exists = !ec;
+    return stamp;
+}
+
+// Original file-based exchange: poll command.json, answer in result.json.
+void runFileLoop(CarManager& manager) {
     // Ensure command.json and result.json exist initially
     // Write empty JSON object to them
     writeFile("command.json", "{}");
@@ -66,7 +272,17 @@ int main() {
     cout << "C++ Backend is running. Waiting for commands in command.json..." << endl;
     cout << "Press Ctrl+C to stop." << endl;
 
+    FileStamp lastSeen;
     while (true) {
+        // Only read command.json when its size or timestamp moved; a stat is far cheaper
+        // than opening and parsing the file on every pass.
+        FileStamp stamp = stampOf("command.json");
+        if (stamp == lastSeen) {
+            this_thread::sleep_for(chrono::milliseconds(COMMAND_POLL_MILLIS));
+            continue;
+        }
+        lastSeen = stamp;
+
         // Read command.json
         string commandContent = readFile("command.json");
         
@@ -76,14 +292,11 @@ int main() {
                 command = json::parse(commandContent);
             } else {
                 // If file is empty or just "{}", treat as no new command and continue.
-                this_thread::sleep_for(chrono::milliseconds(500)); // Small delay for empty file
                 continue; 
             }
         } catch (const json::parse_error& e) {
+            // Java replaces command.json whole, so this is a bad command rather than a torn one.
             cerr << "C++: JSON parsing error in command.json: " << e.what() << endl;
-            // Clear the command file to avoid re-parsing the error
-            writeFile("command.json", "{}"); 
-            this_thread::sleep_for(chrono::milliseconds(1000));
             continue;
         }
 
@@ -92,131 +305,282 @@ int main() {
         string currentCommandId = command.value("id", "");
         if (currentCommandId.empty() || currentCommandId == lastProcessedCommandId) {
             // No new command or command already processed
-            this_thread::sleep_for(chrono::milliseconds(500)); 
             continue;
         }
 
         string action = command.value("action", ""); // Get the "action" field from JSON
+        // No channel to push on here; another process's saves show in this response's version
+        manager.mergeChangesFromDisk();
+        json response = handleCommand(manager, command);
+
+        // Mark this command as processed by clearing command.json. This has to happen before
+        // the answer goes out: once Java sees it, it may write its next command straight away.
+        lastProcessedCommandId = currentCommandId;
+        writeFile("command.json", "{}");
+
+        // Write the response to result.json
+        writeFile("result.json", response.dump(4)); // dump(4) makes it pretty-printed JSON
+        if (action != "PING") {
+            cout << "C++: Processed command '" << action << "' with ID '" << currentCommandId << "'" << endl;
+        }
+    }
+}
+
+// Reads one frame from stdin: int32 big-endian length, uint8 id length, id, body.
+// Returns false on EOF or a malformed frame.
+bool readFrame(string& id, string& body) {
+    unsigned char header[4];
+    if (fread(header, 1, 4, stdin) != 4) return false;
+    uint32_t length = (uint32_t(header[0]) << 24) | (uint32_t(header[1]) << 16) |
+                      (uint32_t(header[2]) << 8) | uint32_t(header[3]);
+    if (length < 1 || length > MAX_FRAME_LENGTH) return false;
+    int idLength = fgetc(stdin);
+    if (idLength == EOF || uint32_t(idLength) > length - 1) return false;
+    id.resize(idLength);
+    if (idLength > 0 && fread(&id[0], 1, idLength, stdin) != size_t(idLength)) return false;
+    body.resize(length - 1 - idLength);
+    if (!body.empty() && fread(&body[0], 1, body.size(), stdin) != body.size()) return false;
+    return true;
+}
+
+void writeFrame(const string& id, const string& body) {
+    uint32_t length = uint32_t(1 + id.size() + body.size());
+    unsigned char header[5] = {
+        (unsigned char)(length >> 24), (unsigned char)(length >> 16),
+        (unsigned char)(length >> 8), (unsigned char)length,
+        (unsigned char)id.size()
+    };
+    fwrite(header, 1, 5, stdout);
+    fwrite(id.data(), 1, id.size(), stdout);
+    fwrite(body.data(), 1, body.size(), stdout);
+    fflush(stdout);
+}
 
-        json response;
-        response["id"] = currentCommandId; // Echo the command ID in the response
-        response["status"] = "error";       // Default status
+// Commands read from a framed channel, waiting for the worker thread. Java sends CANCEL for a
+// command whose caller gave up on it; if that command is still waiting here it is dropped
+// and never runs. A command already running is finished (its late reply is ignored by Java).
+class CommandQueue {
+public:
+    struct Entry {
+        string id;
+        json command;
+        bool compact = false;
+        bool decoded = false;
+    };
+
+    void push(Entry entry) {
+        {
+            lock_guard<mutex> guard(lock);
+            entries.push_back(move(entry));
+        }
+        ready.notify_one();
+    }
+
+    enum class Next { Command, Idle, Closed };
 
-        if (action == "GET_ALL_CARS") {
-            cout << "C++: Received GET_ALL_CARS command." << endl;
-            vector<Car> cars = manager.getAllCars();
-            json carArray = json::array();
-            for (const auto& car : cars) { 
-                carArray.push_back(car.toJson()); // Use Car::toJson() directly
+    // Waits up to `idle` for a command. Idle means the wait ran out with nothing queued;
+    // Closed means the channel is gone and everything queued has been handed out.
+    Next pop(Entry& entry, chrono::milliseconds idle) {
+        unique_lock<mutex> guard(lock);
+        if (!ready.wait_for(guard, idle, [this] { return closed || !entries.empty(); })) {
+            return Next::Idle;
+        }
+        if (entries.empty()) return Next::Closed;
+        entry = move(entries.front());
+        entries.pop_front();
+        return Next::Command;
+    }
+
+    // Removes the command with this id if it has not been picked up yet.
+    bool cancel(const string& id) {
+        lock_guard<mutex> guard(lock);
+        for (auto it = entries.begin(); it != entries.end(); ++it) {
+            if (it->id == id) {
+                entries.erase(it);
+                return true;
             }
-            response["status"] = "success";
-            response["data"] = carArray;
-
-        } else if (action == "ADD_CAR") {
-            cout << "C++: Received ADD_CAR command." << endl;
-            try {
-                Car newCar = Car::fromJson(command["car"]); // Use Car::fromJson() directly
-                bool exists = false;
-                for (const auto& c : manager.getAllCars()) {
-                    if (c.getName() == newCar.getName()) { // Use getter for comparison
-                        exists = true;
-                        break;
-                    }
-                }
-                if (!exists) {
-                    manager.addCar(newCar);
-                    manager.saveCarsToFile("cars_data.txt"); // Save after adding/modifying
-                    response["status"] = "success";
-                    response["message"] = "Car added successfully.";
-                } else {
-                    response["status"] = "error";
-                    response["message"] = "Car with this name already exists.";
-                }
-            } catch (const exception& e) {
-                response["status"] = "error";
-                response["message"] = "Error adding car: " + string(e.what());
+        }
+        return false;
+    }
+
+    void close() {
+        {
+            lock_guard<mutex> guard(lock);
+            closed = true;
+        }
+        ready.notify_all();
+    }
+
+private:
+    deque<Entry> entries;
+    mutex lock;
+    condition_variable ready;
+    bool closed = false;
+};
+
+// Record id of the unsolicited CATALOG_CHANGED notice; Java never uses it for a command.
+const string EVENT_ID = "event";
+
+// How long the worker waits for a command before checking cars_data.txt for changes made by
+// another process.
+const chrono::milliseconds DISK_CHECK_INTERVAL(500);
+
+// Shared by the stdio and shared-memory channels. This thread only reads and decodes records
+// and answers CANCEL; a worker thread runs every other command in arrival order, so a slow
+// query no longer stops the channel from hearing that a later command has been given up on.
+//
+// Whenever the catalog version moves, whether through a command from this Java process or
+// through another process rewriting cars_data.txt, the worker also sends an unsolicited
+// {"action": "CATALOG_CHANGED", "version": V} record under EVENT_ID. Java fetches the
+// changes with GET_CHANGES_SINCE, so open screens update without polling.
+void runQueuedLoop(CarManager& manager, const string& channelName,
+                   const function<bool(string&, string&)>& readRecord,
+                   const function<void(const string&, const string&)>& writeRecord) {
+    CommandQueue queue;
+    mutex writeLock; // Replies come from both threads
+    auto reply = [&](const string& id, json& response, bool compact) {
+        response["id"] = id;
+        string encoded = compact ? encodeCompact(response) : response.dump();
+        lock_guard<mutex> guard(writeLock);
+        writeRecord(id, encoded);
+    };
+
+    thread worker([&] {
+        unsigned long long announced = manager.getVersion();
+        bool compactEvents = false; // Events go out in the encoding Java last used
+        auto announceChanges = [&] {
+            manager.mergeChangesFromDisk();
+            unsigned long long current = manager.getVersion();
+            if (current == announced) return;
+            announced = current;
+            json event;
+            event["status"] = "success";
+            event["action"] = "CATALOG_CHANGED";
+            event["version"] = current;
+            reply(EVENT_ID, event, compactEvents);
+        };
+
+        CommandQueue::Entry entry;
+        while (true) {
+            CommandQueue::Next next = queue.pop(entry, DISK_CHECK_INTERVAL);
+            if (next == CommandQueue::Next::Closed) break;
+            if (next == CommandQueue::Next::Idle) {
+                announceChanges();
+                continue;
             }
-        } 
-        // --- Add more command handlers here for UPDATE_CAR, DELETE_CAR, SEARCH, FILTER, SORT ---
-        else if (action == "UPDATE_CAR") {
-            cout << "C++: Received UPDATE_CAR command." << endl;
-            try {
-                Car updatedCar = Car::fromJson(command["car"]);
-                if (manager.updateCar(updatedCar)) {
-                    manager.saveCarsToFile("cars_data.txt");
-                    response["status"] = "success";
-                    response["message"] = "Car updated successfully.";
-                } else {
+            json response;
+            string action;
+            if (entry.decoded) {
+                action = entry.command.value("action", "");
+                try {
+                    response = handleCommand(manager, entry.command);
+                } catch (const exception& e) {
+                    cerr << "C++: Error handling '" << action << "': " << e.what() << endl;
                     response["status"] = "error";
-                    response["message"] = "Car not found for update.";
+                    response["message"] = string("Error handling ") + action + ": " + e.what();
                 }
-            } catch (const exception& e) {
-                response["status"] = "error";
-                response["message"] = "Error updating car: " + string(e.what());
-            }
-        }
-        else if (action == "DELETE_CAR") {
-            cout << "C++: Received DELETE_CAR command." << endl;
-            string carNameToDelete = command.value("carName", "");
-            if (carNameToDelete.empty()) {
-                response["status"] = "error";
-                response["message"] = "Car name for deletion cannot be empty.";
-            } else if (manager.deleteCar(carNameToDelete)) {
-                manager.saveCarsToFile("cars_data.txt");
-                response["status"] = "success";
-                response["message"] = "Car deleted successfully.";
             } else {
                 response["status"] = "error";
-                response["message"] = "Car not found for deletion.";
+                response["message"] = "Invalid command encoding.";
             }
+            reply(entry.id, response, entry.compact);
+            if (action != "PING") {
+                cout << "C++: Processed command '" << action << "' with ID '" << entry.id << "'" << endl;
+            }
+            compactEvents = entry.compact;
+            announceChanges(); // After the reply, so the writer hears its own answer first
         }
-        else if (action == "SEARCH_CARS") {
-            cout << "C++: Received SEARCH_CARS command." << endl;
-            string query = command.value("query", "");
-            string searchField = command.value("searchField", "");
-            vector<Car> results = manager.searchCars(query, searchField);
-            json resultArray = json::array();
-            for (const auto& car : results) { resultArray.push_back(car.toJson()); }
-            response["status"] = "success";
-            response["data"] = resultArray;
-        }
-        else if (action == "FILTER_CARS") {
-            cout << "C++: Received FILTER_CARS command." << endl;
-            string typeFilter = command.value("typeFilter", "");
-            double minRating = command.value("minRating", 0.0);
-            double maxPrice = command.value("maxPrice", 1000000.0); // Use a large default
-            bool availableOnly = command.value("availableOnly", false);
-            vector<Car> results = manager.filterCars(typeFilter, minRating, maxPrice, availableOnly);
-            json resultArray = json::array();
-            for (const auto& car : results) { resultArray.push_back(car.toJson()); }
-            response["status"] = "success";
-            response["data"] = resultArray;
-        }
-        else if (action == "SORT_CARS") {
-            cout << "C++: Received SORT_CARS command." << endl;
-            string sortBy = command.value("sortBy", "");
-            bool ascending = command.value("ascending", true);
-            vector<Car> results = manager.sortCars(sortBy, ascending);
-            json resultArray = json::array();
-            for (const auto& car : results) { resultArray.push_back(car.toJson()); }
-            response["status"] = "success";
-            response["data"] = resultArray;
+    });
+
+    string id, body;
+    while (readRecord(id, body)) {
+        CommandQueue::Entry entry;
+        entry.id = id;
+        entry.compact = isCompact(body);
+        try {
+            entry.command = entry.compact ? decodeCompact(body) : json::parse(body);
+            entry.decoded = true;
+        } catch (const exception& e) {
+            cerr << "C++: Could not decode " << channelName << " record: " << e.what() << endl;
         }
-        else {
-            cerr << "C++: Unknown command action: '" << action << "'" << endl;
-            response["message"] = "Unknown action or invalid command structure.";
+        if (entry.decoded && entry.command.value("action", "") == "CANCEL") {
+            string target = entry.command.value("targetId", "");
+            bool cancelled = queue.cancel(target);
+            json response;
+            response["status"] = "success";
+            response["data"] = {{"cancelled", cancelled}};
+            reply(id, response, entry.compact);
+            cout << "C++: CANCEL for '" << target << "': "
+                 << (cancelled ? "dropped before it ran." : "not waiting (already running or answered).") << endl;
+            continue;
         }
-        
-        // Write the response to result.json
-        writeFile("result.json", response.dump(4)); // dump(4) makes it pretty-printed JSON
-        cout << "C++: Processed command '" << action << "' with ID '" << currentCommandId << "'" << endl;
+        queue.push(move(entry));
+    }
+    queue.close(); // Let the worker finish what is already queued
+    worker.join();
+}
 
-        // Mark this command as processed by clearing command.json
-        lastProcessedCommandId = currentCommandId;
-        writeFile("command.json", "{}"); 
-        
-        // Small pause to prevent busy-waiting
-        this_thread::sleep_for(chrono::milliseconds(100)); 
+// Framed exchange over stdin/stdout (started with --stdio). The pipes stay open for the
+// life of the process, so there is no polling and no file rewrite per command.
+void runStdioLoop(CarManager& manager) {
+    cerr << "C++ Backend is running on the stdio channel." << endl;
+    runQueuedLoop(manager, "stdio", readFrame, writeFrame);
+    cerr << "C++: stdio channel closed, shutting down." << endl;
+}
+
+// Exchange over the memory-mapped ring created by Java (started with --shm <file>).
+// No file is opened or closed per command; records are published by sequence number.
+void runSharedMemoryLoop(CarManager& manager, const string& ringFile) {
+    SharedRing ring;
+    if (!ring.open(ringFile)) {
+        cerr << "C++: Shared-memory channel unavailable, exiting." << endl;
+        return;
+    }
+    cout << "C++ Backend is running on the shared-memory channel (" << ringFile << ")." << endl;
+    runQueuedLoop(manager, "shared-memory",
+                  [&ring](string& id, string& body) { return ring.readMessage(id, body); },
+                  [&ring](const string& id, const string& body) { ring.writeMessage(id, body); });
+    cout << "C++: Shared-memory channel closed, shutting down." << endl;
+}
+
+int main(int argc, char* argv[]) {
+    bool stdioMode = false;
+    string ringFile;
+    for (int i = 1; i < argc; ++i) {
+        if (strcmp(argv[i], "--stdio") == 0) stdioMode = true;
+        else if (strcmp(argv[i], "--shm") == 0 && i + 1 < argc) ringFile = argv[++i];
+    }
+
+    if (stdioMode) {
+#ifdef _WIN32
+        _setmode(_fileno(stdin), _O_BINARY);
+        _setmode(_fileno(stdout), _O_BINARY);
+#endif
+        // stdout carries frames now; route all log output to stderr.
+        cout.rdbuf(cerr.rdbuf());
+    }
+
+    CarManager manager; // Create an instance of your CarManager
+
+    // --- Initial setup for CarManager and data loading ---
+    if (!ifstream("cars_data.txt").good()) {
+        cout << "C++: cars_data.txt not found. Initializing with default cars." << endl;
+        // Add some default cars using the new Car constructor
+        manager.addCar(Car("Toyota Camry", true, "Sedan", 4.5, "/img/camry.png", "50k km", "200 km/h", "5 seats", "Automatic", "Mid-size", 50.0, "2023-01-15"));
+        manager.addCar(Car("Honda Civic", true, "Sedan", 4.2, "/img/civic.png", "30k km", "180 km/h", "5 seats", "Automatic", "Compact", 45.0, "2022-03-20"));
+        manager.addCar(Car("Ford Escape", false, "SUV", 4.0, "/img/escape.png", "60k km", "190 km/h", "5 seats", "Automatic", "Compact SUV", 60.0, "2021-07-10"));
+        manager.saveCarsToFile("cars_data.txt"); // Save these initial cars
+    } else {
+        cout << "C++: Loading cars from cars_data.txt." << endl;
+        manager.loadCarsFromFile("cars_data.txt");
+    }
+
+    if (!ringFile.empty()) {
+        runSharedMemoryLoop(manager, ringFile);
+    } else if (stdioMode) {
+        runStdioLoop(manager);
+    } else {
+        runFileLoop(manager);
     }
 
     return 0;